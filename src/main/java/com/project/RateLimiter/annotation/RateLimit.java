@@ -36,4 +36,17 @@ public @interface RateLimit {
      * During this period, requests are allowed even if the bucket is empty.
      */
     int grace() default 0;
+
+    /**
+     * Number of tokens consumed per request. Defaults to 0, which leaves the cost to the
+     * route's configured {@code cost} (1 unless set in Redis).
+     * Expensive endpoints (bulk exports, search) should declare a higher cost.
+     */
+    int cost() default 0;
+
+    /**
+     * Strategy used for this endpoint (e.g. token_bucket, concurrency).
+     * Defaults to empty string, which uses the ratelimit.strategy property.
+     */
+    String strategy() default "";
 } 
\ No newline at end of file
@@ -2,7 +2,9 @@ package com.project.RateLimiter.aspect;
 
 import com.project.RateLimiter.annotation.RateLimit;
 import com.project.RateLimiter.exception.RateLimitExceededException;
+import com.project.RateLimiter.interceptor.RateLimitInterceptor;
 import com.project.RateLimiter.strategy.TokenBucketStrategy;
+import com.project.RateLimiter.util.CostCalculator;
 import com.project.RateLimiter.util.KeyGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -17,6 +19,8 @@ import jakarta.servlet.http.HttpServletRequest;
 /**
  * Aspect that intercepts methods annotated with @RateLimit and applies rate limiting.
  * Provides atomic rate limiting operations using the token bucket algorithm.
+ * Requests already admitted by {@link RateLimitInterceptor} were charged there, with the
+ * annotation's cost and strategy, and are not charged again.
  */
 @Slf4j
 @Aspect
@@ -47,8 +51,16 @@ public class RateLimitAspect {
             return joinPoint.proceed();
         }
 
+        if (request.getAttribute(RateLimitInterceptor.ADMITTED_ATTRIBUTE) != null) {
+            log.debug("Request already admitted by the rate limit interceptor, skipping");
+            return joinPoint.proceed();
+        }
+
         String key = generateKey(request, rateLimit);
         log.debug("Checking rate limit for key: {} with annotation: {}", key, rateLimit);
+        if (rateLimit.cost() > 0) {
+            request.setAttribute(CostCalculator.COST_ATTRIBUTE, rateLimit.cost());
+        }
         
         boolean allowed = tokenBucketStrategy.isAllowed(request);
 
@@ -0,0 +1,171 @@
+package com.project.RateLimiter.config;
+
+import com.project.RateLimiter.dto.RateLimitConfig;
+import com.project.RateLimiter.exception.InvalidRateLimitConfigException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates and writes rate limit configs. Every change bumps the config version and is published
+ * on a Redis Stream, which {@link RateLimitConfigChangeListener} applies incrementally on every node.
+ */
+@Slf4j
+@Service
+public class RateLimitConfigAdminService {
+
+    public static final String VERSION_KEY = "ratelimit:config:version";
+    public static final String CHANGE_STREAM = "ratelimit:config:changes";
+
+    // Prefix of every key KeyGenerator produces; anything else would never be looked up
+    private static final String KEY_PREFIX = "rate:";
+
+    private static final String[] CONFIG_FIELDS = {"maxTokens", "refillRate", "refillIntervalMs", "graceLimit", "cost", "costPerKb"};
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitConfigService configService;
+
+    @Value("${ratelimit.config.import-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${ratelimit.config.stream-max-length:1000000}")
+    private long streamMaxLength;
+
+    public RateLimitConfigAdminService(StringRedisTemplate redisTemplate, RateLimitConfigService configService) {
+        this.redisTemplate = redisTemplate;
+        this.configService = configService;
+    }
+
+    public RateLimitConfig getConfig(String redisKey) {
+        return configService.findConfigs(List.of(redisKey)).get(redisKey);
+    }
+
+    public long getVersion() {
+        String version = redisTemplate.opsForValue().get(VERSION_KEY);
+        return version != null ? Long.parseLong(version) : 0;
+    }
+
+    public long putConfig(String redisKey, RateLimitConfig config) {
+        return importConfigs(Map.of(redisKey, config));
+    }
+
+    /**
+     * Validates every entry up front, then writes them in pipelined batches.
+     *
+     * @return the config version of the last written entry
+     * @throws InvalidRateLimitConfigException if any entry is invalid; nothing is written in that case
+     */
+    public long importConfigs(Map<String, RateLimitConfig> configs) {
+        configs.forEach(this::validate);
+
+        List<Map.Entry<String, RateLimitConfig>> entries = new ArrayList<>(configs.entrySet());
+        long version = getVersion();
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<String, RateLimitConfig>> batch = entries.subList(from, Math.min(entries.size(), from + batchSize));
+            long lastVersion = redisTemplate.opsForValue().increment(VERSION_KEY, batch.size());
+            long firstVersion = lastVersion - batch.size() + 1;
+
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (int i = 0; i < batch.size(); i++) {
+                    String redisKey = batch.get(i).getKey();
+                    Map<String, String> fields = toFields(batch.get(i).getValue());
+                    stringConnection.hMSet(redisKey, fields);
+
+                    Map<String, String> change = new HashMap<>(fields);
+                    change.put("key", redisKey);
+                    change.put("op", "PUT");
+                    change.put("version", String.valueOf(firstVersion + i));
+                    stringConnection.xAdd(StreamRecords.string(change).withStreamKey(CHANGE_STREAM));
+                }
+                return null;
+            });
+            version = lastVersion;
+        }
+        trimChangeStream();
+        log.info("Imported {} rate limit configs, config version now {}", entries.size(), version);
+        return version;
+    }
+
+    /**
+     * Removes the config fields of a key; the key falls back to the default config on every node.
+     */
+    public long deleteConfig(String redisKey) {
+        validateKey(redisKey);
+        long version = redisTemplate.opsForValue().increment(VERSION_KEY);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            // Only config fields: the same hash holds the bucket state
+            stringConnection.hDel(redisKey, CONFIG_FIELDS);
+            stringConnection.xAdd(StreamRecords.string(Map.of(
+                    "key", redisKey,
+                    "op", "DELETE",
+                    "version", String.valueOf(version)
+            )).withStreamKey(CHANGE_STREAM));
+            return null;
+        });
+        log.info("Deleted rate limit config for key {}, config version now {}", redisKey, version);
+        return version;
+    }
+
+    private void validate(String redisKey, RateLimitConfig config) {
+        validateKey(redisKey);
+        if (config == null) {
+            throw new InvalidRateLimitConfigException("Config for key " + redisKey + " must not be empty");
+        }
+        requireAtLeast(redisKey, "maxTokens", config.getMaxTokens(), 1);
+        requireAtLeast(redisKey, "refillRate", config.getRefillRate(), 1);
+        requireAtLeast(redisKey, "refillIntervalMs", config.getRefillIntervalMs(), 1);
+        requireAtLeast(redisKey, "graceLimit", config.getGraceLimit(), 0);
+        requireAtLeast(redisKey, "cost", config.getCost(), 1);
+        requireAtLeast(redisKey, "costPerKb", config.getCostPerKb(), 0);
+        // A request costing more than the bucket holds could never be admitted
+        if (config.getCost() > config.getMaxTokens() + config.getGraceLimit()) {
+            throw new InvalidRateLimitConfigException(String.format("Invalid config for key %s: cost must be <= maxTokens + graceLimit (%d) but was %d",
+                    redisKey, config.getMaxTokens() + config.getGraceLimit(), config.getCost()));
+        }
+    }
+
+    private void validateKey(String redisKey) {
+        if (redisKey == null || redisKey.isBlank()) {
+            throw new InvalidRateLimitConfigException("Config key must not be empty");
+        }
+        if (!redisKey.startsWith(KEY_PREFIX)) {
+            throw new InvalidRateLimitConfigException("Config key " + redisKey + " must start with " + KEY_PREFIX);
+        }
+    }
+
+    private void requireAtLeast(String redisKey, String field, int value, int min) {
+        if (value < min) {
+            throw new InvalidRateLimitConfigException(String.format("Invalid config for key %s: %s must be >= %d but was %d", redisKey, field, min, value));
+        }
+    }
+
+    private Map<String, String> toFields(RateLimitConfig config) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("maxTokens", String.valueOf(config.getMaxTokens()));
+        fields.put("refillRate", String.valueOf(config.getRefillRate()));
+        fields.put("refillIntervalMs", String.valueOf(config.getRefillIntervalMs()));
+        fields.put("graceLimit", String.valueOf(config.getGraceLimit()));
+        fields.put("cost", String.valueOf(config.getCost()));
+        fields.put("costPerKb", String.valueOf(config.getCostPerKb()));
+        return fields;
+    }
+
+    private void trimChangeStream() {
+        try {
+            redisTemplate.opsForStream().trim(CHANGE_STREAM, streamMaxLength, true);
+        } catch (Exception e) {
+            log.warn("Failed to trim config change stream: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.project.RateLimiter.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails the config change stream and applies each change to the local config cache,
+ * so nodes pick up new limits incrementally without rescanning Redis.
+ */
+@Slf4j
+@Component
+public class RateLimitConfigChangeListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitConfigService configService;
+
+    @Value("${ratelimit.config.stream-poll-ms:500}")
+    private long pollMs;
+
+    @Value("${ratelimit.config.stream-batch-size:1000}")
+    private int readBatchSize;
+
+    // Id of the last applied stream entry; null until the stream position is known
+    private volatile String lastId;
+    private ScheduledExecutorService scheduler;
+
+    public RateLimitConfigChangeListener(StringRedisTemplate redisTemplate, RateLimitConfigService configService) {
+        this.redisTemplate = redisTemplate;
+        this.configService = configService;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ratelimit-config-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    void poll() {
+        try {
+            if (lastId == null) {
+                // Configs loaded from now on are read from Redis directly; only later changes matter
+                List<MapRecord<String, Object, Object>> latest = redisTemplate.opsForStream()
+                        .reverseRange(RateLimitConfigAdminService.CHANGE_STREAM, Range.unbounded(), Limit.limit().count(1));
+                lastId = latest == null || latest.isEmpty() ? "0-0" : latest.get(0).getId().getValue();
+                log.info("Following config change stream from id {}", lastId);
+            }
+
+            List<MapRecord<String, Object, Object>> records;
+            do {
+                records = redisTemplate.opsForStream().read(
+                        StreamReadOptions.empty().count(readBatchSize),
+                        StreamOffset.create(RateLimitConfigAdminService.CHANGE_STREAM, ReadOffset.from(lastId)));
+                if (records == null) {
+                    return;
+                }
+                for (MapRecord<String, Object, Object> record : records) {
+                    apply(record.getValue());
+                    lastId = record.getId().getValue();
+                }
+            } while (records.size() == readBatchSize);
+        } catch (Exception e) {
+            log.warn("Failed to read config change stream: {}", e.getMessage());
+        }
+    }
+
+    private void apply(Map<Object, Object> change) {
+        String redisKey = (String) change.get("key");
+        try {
+            long version = Long.parseLong((String) change.get("version"));
+            if ("DELETE".equals(change.get("op"))) {
+                configService.applyChange(redisKey, null, version);
+            } else {
+                configService.applyChange(redisKey, RateLimitConfigService.parseConfig(change), version);
+            }
+        } catch (Exception e) {
+            log.error("Skipping malformed config change for key {}: {}", redisKey, e.getMessage());
+        }
+    }
+}
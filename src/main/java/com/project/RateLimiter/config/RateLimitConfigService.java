@@ -4,45 +4,196 @@ import com.project.RateLimiter.dto.RateLimitConfig;
 import com.project.RateLimiter.util.KeyGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Resolves rate limit configs. Configs are parsed once per key and cached; the cache is kept
+ * current by {@link RateLimitConfigChangeListener}, so the request path never parses a changed config.
+ * Keys without a config are cached only for {@code ratelimit.config.negative-cache-ms}, so a config
+ * written for a new key is picked up even without the change stream. Configs are cached for at most
+ * {@code ratelimit.config.positive-cache-ms}, which bounds how long a change missed on the stream,
+ * or written directly to Redis, stays invisible. The cache holds at most
+ * {@code ratelimit.config.cache-max-entries} keys; evicted keys are simply reloaded from Redis.
+ */
 @Slf4j
 @Service
 public class RateLimitConfigService {
 
+    // Marks cached keys that have no stored config
+    private static final RateLimitConfig ABSENT = new RateLimitConfig();
+
     private final Map<String, RateLimitConfig> fallbackMap = Map.of(
             "/ping", new RateLimitConfig(10, 1, 60000, 2)
     );
 
+    private final ConcurrentHashMap<String, CachedConfig> configCache = new ConcurrentHashMap<>();
+
+    @Value("${ratelimit.config.cache-max-entries:100000}")
+    private int cacheMaxEntries;
+
+    @Value("${ratelimit.config.negative-cache-ms:5000}")
+    private long negativeCacheMs;
+
+    @Value("${ratelimit.config.positive-cache-ms:60000}")
+    private long positiveCacheMs;
+
+    private volatile long appliedVersion;
+
     @Autowired
     private StringRedisTemplate redisTemplate;
 
     public RateLimitConfig getConfig(HttpServletRequest request) {
         String redisKey = KeyGenerator.generateKey(request);
-        Map<Object, Object> configMap = redisTemplate.opsForHash().entries(redisKey);
+        RateLimitConfig config = cachedConfig(redisKey, System.currentTimeMillis());
+        if (config == null) {
+            config = cache(redisKey, loadConfig(redisKey, redisTemplate.opsForHash().entries(redisKey)));
+        }
+        return config != ABSENT ? config : getFallbackConfig(KeyGenerator.resolveApiPath(request));
+    }
 
-        String apiPath = request.getRequestURI();
-        if (configMap.isEmpty()) {
-            log.warn("No Redis config found for key {}, falling back", redisKey);
-            return fallbackMap.getOrDefault(apiPath, new RateLimitConfig(5, 1, 60000, 2));
+    /**
+     * Loads the configs of several keys, fetching uncached keys in one pipelined round-trip.
+     * Only keys that carry an explicit config are returned, in the order they were requested.
+     */
+    public Map<String, RateLimitConfig> findConfigs(List<String> redisKeys) {
+        List<String> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (String redisKey : redisKeys) {
+            if (cachedConfig(redisKey, now) == null) {
+                missing.add(redisKey);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String redisKey : missing) {
+                    connection.hashCommands().hGetAll(redisKey.getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+            for (int i = 0; i < missing.size(); i++) {
+                @SuppressWarnings("unchecked")
+                Map<Object, Object> configMap = (Map<Object, Object>) results.get(i);
+                cache(missing.get(i), loadConfig(missing.get(i), configMap));
+            }
         }
 
+        return findCachedConfigs(redisKeys);
+    }
+
+    /**
+     * Like {@link #findConfigs(List)}, but only returns configs that are already cached and never calls Redis.
+     */
+    public Map<String, RateLimitConfig> findCachedConfigs(List<String> redisKeys) {
+        Map<String, RateLimitConfig> configs = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        for (String redisKey : redisKeys) {
+            RateLimitConfig config = cachedConfig(redisKey, now);
+            if (config != null && config != ABSENT) {
+                configs.put(redisKey, config);
+            }
+        }
+        return configs;
+    }
+
+    public RateLimitConfig getFallbackConfig(String apiPath) {
+        return fallbackMap.getOrDefault(apiPath, new RateLimitConfig(5, 1, 60000, 2));
+    }
+
+    /**
+     * Applies a config change published on the change stream.
+     *
+     * @param config the new config, or null if the config was deleted
+     */
+    void applyChange(String redisKey, RateLimitConfig config, long version) {
+        evictIfFull();
+        configCache.put(redisKey, entry(config != null ? config : ABSENT));
+        appliedVersion = Math.max(appliedVersion, version);
+        log.debug("Applied config change v{} for key {}: {}", version, redisKey, config);
+    }
+
+    public long getAppliedVersion() {
+        return appliedVersion;
+    }
+
+    private RateLimitConfig cachedConfig(String redisKey, long now) {
+        CachedConfig cached = configCache.get(redisKey);
+        return cached != null && cached.expiresAtMillis() > now ? cached.config() : null;
+    }
+
+    private RateLimitConfig cache(String redisKey, RateLimitConfig config) {
+        evictIfFull();
+        CachedConfig fresh = entry(config);
+        long now = System.currentTimeMillis();
+        // A change applied from the stream while loading wins over the loaded value
+        return configCache.merge(redisKey, fresh,
+                (existing, loaded) -> existing.expiresAtMillis() > now ? existing : loaded).config();
+    }
+
+    private CachedConfig entry(RateLimitConfig config) {
+        long expiresAtMillis = System.currentTimeMillis() + (config == ABSENT ? negativeCacheMs : positiveCacheMs);
+        return new CachedConfig(config, expiresAtMillis);
+    }
+
+    /**
+     * Keeps the cache below its bound, e.g. when clients send many distinct ids. Negative entries go first;
+     * if that is not enough, arbitrary entries are dropped until the cache is 10% below the bound.
+     */
+    private void evictIfFull() {
+        if (configCache.size() < cacheMaxEntries) {
+            return;
+        }
+        configCache.values().removeIf(cached -> cached.config() == ABSENT);
+        Iterator<String> keys = configCache.keySet().iterator();
+        while (configCache.size() >= cacheMaxEntries * 0.9 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        log.warn("Config cache reached {} entries, evicted down to {}", cacheMaxEntries, configCache.size());
+    }
+
+    private RateLimitConfig loadConfig(String redisKey, Map<Object, Object> configMap) {
+        if (configMap == null || !configMap.containsKey("maxTokens")) {
+            log.warn("No Redis config found for key {}, falling back", redisKey);
+            return ABSENT;
+        }
         try {
-            int maxTokens = Integer.parseInt((String) configMap.getOrDefault("maxTokens", "5"));
-            int refillRate = Integer.parseInt((String) configMap.getOrDefault("refillRate", "1"));
-            int intervalMs = Integer.parseInt((String) configMap.getOrDefault("refillIntervalMs", "60000"));
-            int graceLimit = Integer.parseInt((String) configMap.getOrDefault("graceLimit", "2"));
-            RateLimitConfig config = new RateLimitConfig(maxTokens, refillRate, intervalMs, graceLimit);
+            RateLimitConfig config = parseConfig(configMap);
             log.debug("Loaded dynamic rate config from Redis for key {}: {}", redisKey, config);
             return config;
         } catch (Exception e) {
             log.error("Invalid rate limit config in Redis for key {}: {}, falling back", redisKey, e.getMessage());
-            return fallbackMap.getOrDefault(apiPath, new RateLimitConfig(5, 1, 60000, 2));
+            return ABSENT;
         }
     }
-}
 
+    static RateLimitConfig parseConfig(Map<?, ?> configMap) {
+        int maxTokens = Integer.parseInt((String) getOrDefault(configMap, "maxTokens", "5"));
+        int refillRate = Integer.parseInt((String) getOrDefault(configMap, "refillRate", "1"));
+        int intervalMs = Integer.parseInt((String) getOrDefault(configMap, "refillIntervalMs", "60000"));
+        int graceLimit = Integer.parseInt((String) getOrDefault(configMap, "graceLimit", "2"));
+        int cost = Integer.parseInt((String) getOrDefault(configMap, "cost", "1"));
+        int costPerKb = Integer.parseInt((String) getOrDefault(configMap, "costPerKb", "0"));
+        return new RateLimitConfig(maxTokens, refillRate, intervalMs, graceLimit, cost, costPerKb);
+    }
+
+    private record CachedConfig(RateLimitConfig config, long expiresAtMillis) {
+    }
+
+    private static Object getOrDefault(Map<?, ?> configMap, String field, String defaultValue) {
+        Object value = configMap.get(field);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -15,7 +15,8 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(rateLimitInterceptor);
+        // Admin calls such as bulk imports must not be throttled by the limits they manage
+        registry.addInterceptor(rateLimitInterceptor).excludePathPatterns("/admin/**");
         log.info("RateLimitInterceptor registered");
     }
 }
@@ -0,0 +1,75 @@
+package com.project.RateLimiter.controller;
+
+import com.project.RateLimiter.config.RateLimitConfigAdminService;
+import com.project.RateLimiter.config.RateLimitConfigService;
+import com.project.RateLimiter.dto.RateLimitConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin API for rate limit configs. Keys are the rate limit keys, e.g. rate:client:web:/ping,
+ * and are passed as a query parameter since they contain ':' and '/'.
+ * Disabled unless ratelimit.admin.enabled=true; expose it only on a trusted network.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/ratelimit/configs")
+@ConditionalOnProperty(name = "ratelimit.admin.enabled", havingValue = "true")
+public class RateLimitConfigAdminController {
+
+    private final RateLimitConfigAdminService adminService;
+    private final RateLimitConfigService configService;
+
+    public RateLimitConfigAdminController(RateLimitConfigAdminService adminService, RateLimitConfigService configService) {
+        this.adminService = adminService;
+        this.configService = configService;
+    }
+
+    @GetMapping
+    public ResponseEntity<RateLimitConfig> getConfig(@RequestParam String key) {
+        RateLimitConfig config = adminService.getConfig(key);
+        return config != null ? ResponseEntity.ok(config) : ResponseEntity.notFound().build();
+    }
+
+    @PutMapping
+    public ResponseEntity<Map<String, Object>> putConfig(@RequestParam String key, @RequestBody RateLimitConfig config) {
+        long version = adminService.putConfig(key, config);
+        log.info("Config for key {} updated to {} (version {})", key, config, version);
+        return ResponseEntity.ok(versionResponse(1, version));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> deleteConfig(@RequestParam String key) {
+        long version = adminService.deleteConfig(key);
+        return ResponseEntity.ok(versionResponse(1, version));
+    }
+
+    /**
+     * Bulk import of a JSON object mapping keys to configs; all entries are validated before any is written.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> importConfigs(@RequestBody Map<String, RateLimitConfig> configs) {
+        long version = adminService.importConfigs(configs);
+        return ResponseEntity.ok(versionResponse(configs.size(), version));
+    }
+
+    @GetMapping("/version")
+    public ResponseEntity<Map<String, Object>> version() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("version", adminService.getVersion());
+        response.put("appliedVersion", configService.getAppliedVersion());
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> versionResponse(int updated, long version) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", updated);
+        response.put("version", version);
+        return response;
+    }
+}
@@ -78,6 +78,18 @@ public class TestController {
         return ResponseEntity.ok(response);
     }
     
+    // Weighted endpoint: every call consumes 5 tokens
+    @RateLimit(key = "export", capacity = 10, refillTokensPerSecond = 1, grace = 0, cost = 5)
+    @GetMapping("/aop/export")
+    public ResponseEntity<Map<String, Object>> aopExport() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Weighted AOP Rate Limited Endpoint");
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", "success");
+        log.info("AOP export endpoint hit");
+        return ResponseEntity.ok(response);
+    }
+    
     // Health check endpoint
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
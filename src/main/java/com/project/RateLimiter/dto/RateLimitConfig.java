@@ -12,5 +12,11 @@ public class RateLimitConfig {
     private int refillRate;
     private int refillIntervalMs;
     private int graceLimit;
+    // Tokens consumed per request, plus costPerKb for every started KB of request payload
+    private int cost = 1;
+    private int costPerKb;
 
+    public RateLimitConfig(int maxTokens, int refillRate, int refillIntervalMs, int graceLimit) {
+        this(maxTokens, refillRate, refillIntervalMs, graceLimit, 1, 0);
+    }
 }
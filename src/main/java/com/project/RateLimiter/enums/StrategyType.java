@@ -3,6 +3,9 @@ package com.project.RateLimiter.enums;
 public enum StrategyType {
     FIXED_WINDOW,
     TOKEN_BUCKET,
+    APPROXIMATE,
+    HIERARCHICAL_TOKEN_BUCKET,
     SLIDING_WINDOW,
-    LEAKY_BUCKET
+    LEAKY_BUCKET,
+    CONCURRENCY
 }
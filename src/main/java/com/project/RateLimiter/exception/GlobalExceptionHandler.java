@@ -3,6 +3,8 @@ package com.project.RateLimiter.exception;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -41,6 +43,51 @@ public class GlobalExceptionHandler {
                 .body(errorResponse);
     }
 
+    /**
+     * Handles InvalidRateLimitConfigException and returns a 400 Bad Request response.
+     * 
+     * @param ex the invalid rate limit config exception
+     * @return ResponseEntity with 400 status and error details
+     */
+    @ExceptionHandler(InvalidRateLimitConfigException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRateLimitConfig(InvalidRateLimitConfigException ex) {
+        log.warn("Invalid rate limit config: {}", ex.getMessage());
+        
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Invalid Rate Limit Config");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
+        
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(errorResponse);
+    }
+
+    /**
+     * Handles unreadable request bodies (malformed JSON, non-integer config fields) and missing
+     * request parameters such as the admin API's {@code key}, returning a 400 Bad Request response.
+     * 
+     * @param ex the exception
+     * @return ResponseEntity with 400 status and error details
+     */
+    @ExceptionHandler({HttpMessageNotReadableException.class, MissingServletRequestParameterException.class})
+    public ResponseEntity<Map<String, Object>> handleBadRequest(Exception ex) {
+        log.warn("Bad request: {}", ex.getMessage());
+        
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Bad Request");
+        errorResponse.put("message", ex instanceof HttpMessageNotReadableException
+                ? "Request body is missing or not a valid rate limit config"
+                : ex.getMessage());
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
+        
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(errorResponse);
+    }
+
     /**
      * Generic exception handler for unexpected errors.
      * 
@@ -0,0 +1,27 @@
+package com.project.RateLimiter.exception;
+
+/**
+ * Exception thrown when a rate limit config submitted through the admin API is invalid.
+ * Nothing is written to Redis when this exception is thrown.
+ */
+public class InvalidRateLimitConfigException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidRateLimitConfigException with the specified detail message.
+     * 
+     * @param message the detail message (which is saved for later retrieval by the getMessage() method)
+     */
+    public InvalidRateLimitConfigException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new InvalidRateLimitConfigException with the specified detail message and cause.
+     * 
+     * @param message the detail message (which is saved for later retrieval by the getMessage() method)
+     * @param cause the cause (which is saved for later retrieval by the getCause() method)
+     */
+    public InvalidRateLimitConfigException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
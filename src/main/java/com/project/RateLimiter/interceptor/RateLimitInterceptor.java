@@ -2,8 +2,11 @@ package com.project.RateLimiter.interceptor;
 
 import com.project.RateLimiter.config.RateLimitConfigService;
 import com.project.RateLimiter.dto.RateLimitConfig;
-import com.project.RateLimiter.strategy.RateLimitingStrategy;
-import com.project.RateLimiter.strategy.StrategyResolver;
+import com.project.RateLimiter.strategy.ConcurrencyPermit;
+import com.project.RateLimiter.strategy.RoutePolicy;
+import com.project.RateLimiter.strategy.RoutePolicyIndex;
+import com.project.RateLimiter.util.CostCalculator;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -17,8 +20,13 @@ import java.io.IOException;
 @Slf4j
 public class RateLimitInterceptor implements HandlerInterceptor {
 
+    /**
+     * Set on requests this interceptor admitted, so {@code @RateLimit} handlers are not charged a second time by the aspect.
+     */
+    public static final String ADMITTED_ATTRIBUTE = "rateLimitAdmitted";
+
     @Autowired
-    private StrategyResolver strategyResolver;
+    private RoutePolicyIndex routePolicyIndex;
 
     @Autowired
     private RateLimitConfigService configService;
@@ -30,15 +38,19 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         if (clientId == null) clientId = "anonymous";
 
         String apiPath = request.getRequestURI();
-        String strategy = "token_bucket"; // TODO
 
-        RateLimitingStrategy limiter = strategyResolver.resolve(strategy);
+        RoutePolicy policy = routePolicyIndex.getPolicy(handler);
+        if (policy.getDeclaredCost() != null) {
+            request.setAttribute(CostCalculator.COST_ATTRIBUTE, policy.getDeclaredCost());
+        }
 
-        if (!limiter.isAllowed(request)) {
+        if (!policy.getLimiter().isAllowed(request)) {
             RateLimitConfig config = configService.getConfig(request);
-            log.warn("THROTTLED REQUEST: clientId={}, apiPath={}, method={}, remoteAddr={}, config={}, timestamp={}",
+            log.warn("THROTTLED REQUEST: clientId={}, apiPath={}, route={}, strategy={}, method={}, remoteAddr={}, config={}, timestamp={}",
                     clientId,
                     apiPath,
+                    policy.getRoute(),
+                    policy.getStrategyName(),
                     request.getMethod(),
                     request.getRemoteAddr(),
                     config,
@@ -49,7 +61,19 @@ public class RateLimitInterceptor implements HandlerInterceptor {
             return false;
         }
 
+        request.setAttribute(ADMITTED_ATTRIBUTE, Boolean.TRUE);
         return true;
     }
-}
 
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // Concurrency-limited requests hold an in-flight permit until the response completes;
+        // nested (forward/include) dispatches leave it to the dispatch that acquired it
+        if (request.getDispatcherType() == DispatcherType.FORWARD || request.getDispatcherType() == DispatcherType.INCLUDE) {
+            return;
+        }
+        if (request.getAttribute(ConcurrencyPermit.ATTRIBUTE) instanceof ConcurrencyPermit permit) {
+            permit.release();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.project.RateLimiter.strategy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit tuned from observed latency. A window is as many samples as the current limit:
+ * a request slower than the threshold shrinks the limit multiplicatively at most once per window,
+ * so one burst of slow in-flight requests counts once, and each full window of fast requests grows it by one.
+ */
+public class AdaptiveConcurrencyLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdMs;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger fastSamples = new AtomicInteger();
+    private final AtomicInteger samplesSinceDecrease;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdMs = latencyThresholdMs;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        // The first slow sample may back off right away
+        this.samplesSinceDecrease = new AtomicInteger(limit.get());
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public void onSample(long latencyMs) {
+        // Saturates instead of overflowing on long runs of fast samples
+        int sinceDecrease = samplesSinceDecrease.updateAndGet(n -> n < Integer.MAX_VALUE ? n + 1 : n);
+        int current = limit.get();
+        if (latencyMs > latencyThresholdMs) {
+            fastSamples.set(0);
+            if (sinceDecrease >= current
+                    && limit.compareAndSet(current, Math.max(minLimit, (int) (current * backoffRatio)))) {
+                samplesSinceDecrease.set(0);
+            }
+            return;
+        }
+        if (fastSamples.incrementAndGet() >= current) {
+            fastSamples.set(0);
+            limit.compareAndSet(current, Math.min(maxLimit, current + 1));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.project.RateLimiter.strategy;
+
+import com.project.RateLimiter.config.RateLimitConfigService;
+import com.project.RateLimiter.dto.RateLimitConfig;
+import com.project.RateLimiter.util.CostCalculator;
+import com.project.RateLimiter.util.KeyGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local-first approximate limiter for very high global rates.
+ * Each node admits requests against a local quota counted in striped {@link LongAdder}s and,
+ * every sync interval, pushes its deltas to Redis with pipelined INCRBYs. The returned global totals
+ * and the number of nodes serving each key give the next local quota, so Redis load scales with nodes, not requests.
+ * <p>
+ * Each key gets a fixed window of {@code refillIntervalMs} with a budget of {@code maxTokens + graceLimit};
+ * the config is re-read from the config cache whenever a window rolls over, so config changes apply from the next window.
+ * Every node that served the key in the current window gets an equal share of the remaining budget; a node that stops
+ * serving a key keeps counting until the window ends, so the others under-admit for the rest of that window.
+ * The fleet may admit up to {@code budget * (1 + max-overshoot-ratio)} per window, plus what one stale sync interval admits.
+ * A node with no active keys does not sync at all.
+ * Until a node's first sync of a key tells it how many nodes share the key, it admits at most
+ * {@code max-overshoot-ratio} of the budget for that key (at least one request), and a new key triggers a sync right away.
+ */
+@Slf4j
+@Component("approximate")
+public class ApproximateRateLimitStrategy implements RateLimitingStrategy {
+
+    // INCRBY, PEXPIRE, SADD, PEXPIRE, SCARD
+    private static final int COMMANDS_PER_KEY = 5;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitConfigService rateLimitConfigService;
+
+    @Value("${ratelimit.approximate.sync-interval-ms:250}")
+    private long syncIntervalMs;
+
+    @Value("${ratelimit.approximate.max-overshoot-ratio:0.05}")
+    private double maxOvershootRatio;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentHashMap<String, ApproximateWindowCounter> counters = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private final AtomicBoolean syncRequested = new AtomicBoolean();
+
+    public ApproximateRateLimitStrategy(StringRedisTemplate redisTemplate, RateLimitConfigService rateLimitConfigService) {
+        this.redisTemplate = redisTemplate;
+        this.rateLimitConfigService = rateLimitConfigService;
+    }
+
+    @PostConstruct
+    public void startSync() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "approximate-rate-limit-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sync, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Started approximate rate limit sync every {} ms as node {}", syncIntervalMs, nodeId);
+    }
+
+    @PreDestroy
+    public void stopSync() {
+        scheduler.shutdown();
+        sync();
+    }
+
+    @Override
+    public boolean isAllowed(HttpServletRequest request) {
+        String key = KeyGenerator.generateKey(request);
+        ApproximateWindowCounter counter = counters.get(key);
+        if (counter == null) {
+            // Idle keys are evicted by sync and reloaded on next use
+            counter = counters.computeIfAbsent(key, k -> new ApproximateWindowCounter(loadConfig(request), maxOvershootRatio, System.currentTimeMillis()));
+            requestSync();
+        }
+        long now = System.currentTimeMillis();
+        if (!counter.isCurrent(now)) {
+            // Busy keys are never evicted, so they pick up config changes when their window rolls over
+            counter.rollWindow(now, loadConfig(request));
+        }
+        long cost = CostCalculator.calculateCost(request, counter.getConfig());
+        boolean allowed = counter.tryAcquire(cost);
+        log.debug("Approximate rate limit check for key {}: {}", key, allowed ? "ALLOWED" : "DENIED");
+        return allowed;
+    }
+
+    private RateLimitConfig loadConfig(HttpServletRequest request) {
+        try {
+            return rateLimitConfigService.getConfig(request);
+        } catch (Exception e) {
+            log.warn("Could not load config for approximate limiter, using fallback: {}", e.getMessage());
+            return rateLimitConfigService.getFallbackConfig(KeyGenerator.resolveApiPath(request));
+        }
+    }
+
+    // New keys start at a conservative quota, so learn their share without waiting a full interval
+    private void requestSync() {
+        if (scheduler != null && syncRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::sync);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; stopSync pushes the final deltas
+            }
+        }
+    }
+
+    void sync() {
+        sync(System.currentTimeMillis());
+    }
+
+    /**
+     * Pushes local deltas, pulls global totals and the nodes serving each key, and derives new local quotas.
+     */
+    void sync(long now) {
+        syncRequested.set(false);
+        List<ApproximateWindowCounter> batch = new ArrayList<>();
+        List<String> windowKeys = new ArrayList<>();
+        List<Long> windows = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        List<Long> ttls = new ArrayList<>();
+
+        for (Map.Entry<String, ApproximateWindowCounter> entry : counters.entrySet()) {
+            ApproximateWindowCounter counter = entry.getValue();
+            // Same monitor as rollWindow, so the drained deltas always belong to the window they are pushed under
+            synchronized (counter) {
+                if (counter.isIdle(now)) {
+                    counters.remove(entry.getKey(), counter);
+                    continue;
+                }
+                batch.add(counter);
+                windows.add(counter.getWindowId());
+                windowKeys.add(entry.getKey() + ":approx:" + counter.getWindowId());
+                deltas.add(counter.drainPending());
+                ttls.add(counter.getWindowMs() * 2);
+            }
+        }
+
+        // Idle nodes stay silent: no Redis calls, and no warnings while Redis is down
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<long[]> totals = push(windowKeys, deltas, ttls);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).applyGlobalCount(windows.get(i), totals.get(i)[0], Math.max(1, totals.get(i)[1]));
+            }
+        } catch (Exception e) {
+            log.warn("Approximate rate limit sync failed, keeping local quotas: {}", e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).restorePending(windows.get(i), deltas.get(i));
+            }
+        }
+    }
+
+    /**
+     * Adds the deltas to their window counters in one pipelined round-trip.
+     *
+     * @return per window key, the global count and the number of nodes that served the key in that window
+     */
+    List<long[]> push(List<String> windowKeys, List<Long> deltas, List<Long> ttls) {
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (int i = 0; i < windowKeys.size(); i++) {
+                String windowKey = windowKeys.get(i);
+                String nodesKey = windowKey + ":nodes";
+                stringConnection.incrBy(windowKey, deltas.get(i));
+                stringConnection.pExpire(windowKey, ttls.get(i));
+                // Nodes that served the key in this window share its budget
+                stringConnection.sAdd(nodesKey, nodeId);
+                stringConnection.pExpire(nodesKey, ttls.get(i));
+                stringConnection.sCard(nodesKey);
+            }
+            return null;
+        });
+
+        List<long[]> totals = new ArrayList<>(windowKeys.size());
+        for (int i = 0; i < windowKeys.size(); i++) {
+            totals.add(new long[]{
+                    (Long) results.get(i * COMMANDS_PER_KEY),
+                    (Long) results.get(i * COMMANDS_PER_KEY + COMMANDS_PER_KEY - 1)
+            });
+        }
+        return totals;
+    }
+
+    ConcurrentHashMap<String, ApproximateWindowCounter> counters() {
+        return counters;
+    }
+}
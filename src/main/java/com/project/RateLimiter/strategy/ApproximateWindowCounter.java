@@ -0,0 +1,128 @@
+package com.project.RateLimiter.strategy;
+
+import com.project.RateLimiter.dto.RateLimitConfig;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local admission state of one key in {@link ApproximateRateLimitStrategy}: a fixed window of
+ * {@code refillIntervalMs} with a budget of {@code maxTokens + graceLimit}, and this node's quota of it.
+ * Window rolls, draining and restoring pending deltas, and applying sync results all hold the counter's monitor.
+ */
+final class ApproximateWindowCounter {
+    private final double maxOvershootRatio;
+    private volatile RateLimitConfig config;
+    private volatile long windowMs;
+    private volatile long budget;
+    // Admitted locally and not yet pushed to Redis
+    private final LongAdder pending = new LongAdder();
+    // Admitted since the local quota was last derived
+    private final LongAdder used = new LongAdder();
+    private volatile long windowId;
+    private volatile long localQuota;
+    // Nodes sharing the key as of the last sync, 0 before the first sync
+    private volatile long knownNodes;
+
+    ApproximateWindowCounter(RateLimitConfig config, double maxOvershootRatio, long now) {
+        this.maxOvershootRatio = maxOvershootRatio;
+        applyConfig(config);
+        this.windowId = windowOf(now);
+        this.localQuota = initialQuota();
+    }
+
+    RateLimitConfig getConfig() {
+        return config;
+    }
+
+    long getWindowMs() {
+        return windowMs;
+    }
+
+    long getWindowId() {
+        return windowId;
+    }
+
+    long getLocalQuota() {
+        return localQuota;
+    }
+
+    boolean isCurrent(long now) {
+        return windowOf(now) == windowId;
+    }
+
+    /**
+     * Whether a whole window has passed without the key being used, so the counter can be dropped.
+     */
+    boolean isIdle(long now) {
+        return windowId < windowOf(now) - 1;
+    }
+
+    boolean tryAcquire(long cost) {
+        used.add(cost);
+        if (used.sum() > localQuota) {
+            used.add(-cost);
+            return false;
+        }
+        pending.add(cost);
+        return true;
+    }
+
+    /**
+     * Starts the window containing {@code now} with the latest config, unless another thread already did.
+     */
+    synchronized void rollWindow(long now, RateLimitConfig latest) {
+        if (isCurrent(now)) {
+            return;
+        }
+        applyConfig(latest);
+        windowId = windowOf(now);
+        pending.reset();
+        used.reset();
+        localQuota = knownNodes > 0 ? shareOf(0, knownNodes) : initialQuota();
+    }
+
+    /**
+     * Returns and clears the admissions not yet pushed; callers read {@link #getWindowId()} under the same monitor.
+     */
+    synchronized long drainPending() {
+        return pending.sumThenReset();
+    }
+
+    /**
+     * Puts back deltas whose push failed, unless their window has rolled over since.
+     */
+    synchronized void restorePending(long window, long delta) {
+        if (window == windowId) {
+            pending.add(delta);
+        }
+    }
+
+    synchronized void applyGlobalCount(long window, long globalCount, long nodes) {
+        if (window != windowId) {
+            return;
+        }
+        used.reset();
+        knownNodes = nodes;
+        localQuota = shareOf(globalCount, nodes);
+    }
+
+    private void applyConfig(RateLimitConfig config) {
+        this.config = config;
+        this.windowMs = config.getRefillIntervalMs();
+        this.budget = config.getMaxTokens() + config.getGraceLimit();
+    }
+
+    private long windowOf(long now) {
+        return now / windowMs;
+    }
+
+    // Until a sync tells how many nodes share the key, admit only the tolerated overshoot
+    private long initialQuota() {
+        return Math.max(1, (long) (budget * maxOvershootRatio));
+    }
+
+    private long shareOf(long globalCount, long nodes) {
+        long allowance = (long) (budget * (1 + maxOvershootRatio));
+        return Math.max(0, allowance - globalCount) / nodes;
+    }
+}
@@ -0,0 +1,139 @@
+package com.project.RateLimiter.strategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of in-memory token buckets. Snapshots are written through one reused direct buffer
+ * of {@code chunkBytes}, so periodic snapshots allocate no off-heap memory; restores, which run once at startup,
+ * read the file through memory-mapped chunks of the same size.
+ * <p>
+ * Layout: {@code int magic, int version, long snapshotMillis}, then one record per non-full bucket
+ * ({@code byte source, unsigned short keyLength, key bytes (UTF-8), bucket state}) and a {@code -1} end marker.
+ * The source byte is the index of the bucket map in the list passed to {@link #write} and {@link #read}.
+ */
+public final class BucketSnapshotFile {
+
+    private static final int MAGIC = 0x524C534E;
+    private static final int VERSION = 1;
+    private static final byte END_OF_RECORDS = -1;
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int DEFAULT_CHUNK_BYTES = 4 * 1024 * 1024;
+    private static final int MAX_KEY_BYTES = 0xFFFF;
+    // Largest record plus the end marker, so a record never straddles two chunks
+    static final int MAX_RECORD_BYTES = 1 + Short.BYTES + MAX_KEY_BYTES + InMemoryTokenBucket.STATE_BYTES + 1;
+
+    private final int chunkBytes;
+    private final ByteBuffer writeBuffer;
+
+    public BucketSnapshotFile() {
+        this(DEFAULT_CHUNK_BYTES);
+    }
+
+    BucketSnapshotFile(int chunkBytes) {
+        if (chunkBytes < 2 * MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Snapshot chunk must hold at least two maximum-size records: " + chunkBytes);
+        }
+        this.chunkBytes = chunkBytes;
+        this.writeBuffer = ByteBuffer.allocateDirect(chunkBytes);
+    }
+
+    /**
+     * Writes every non-full bucket to a temporary file and atomically replaces {@code path} with it.
+     *
+     * @return the number of buckets written
+     */
+    public synchronized long write(Path path, List<? extends Map<String, InMemoryTokenBucket>> sources) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        long written = 0;
+        ByteBuffer buffer = writeBuffer;
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis());
+
+            for (int source = 0; source < sources.size(); source++) {
+                for (Map.Entry<String, InMemoryTokenBucket> entry : sources.get(source).entrySet()) {
+                    byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    if (key.length > MAX_KEY_BYTES) {
+                        continue;
+                    }
+                    if (buffer.remaining() < MAX_RECORD_BYTES) {
+                        flush(channel, buffer);
+                    }
+                    int start = buffer.position();
+                    buffer.put((byte) source).putShort((short) key.length).put(key);
+                    if (entry.getValue().writeState(buffer)) {
+                        written++;
+                    } else {
+                        buffer.position(start);
+                    }
+                }
+            }
+
+            buffer.put(END_OF_RECORDS);
+            flush(channel, buffer);
+            channel.force(false);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Restores buckets into {@code targets}, skipping buckets that have fully refilled by {@code now}
+     * and keys that already have a bucket.
+     *
+     * @return the number of buckets restored, 0 if there is no snapshot
+     */
+    public long read(Path path, List<? extends Map<String, InMemoryTokenBucket>> targets, long now) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        long restored = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long base = 0;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(size, chunkBytes));
+            if (size < HEADER_BYTES + 1 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Unsupported bucket snapshot format: " + path);
+            }
+            buffer.getLong();
+
+            while (true) {
+                if (buffer.remaining() < MAX_RECORD_BYTES && base + buffer.limit() < size) {
+                    base += buffer.position();
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(size - base, chunkBytes));
+                }
+                byte source = buffer.get();
+                if (source == END_OF_RECORDS) {
+                    break;
+                }
+                byte[] key = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(key);
+                InMemoryTokenBucket bucket = InMemoryTokenBucket.readState(buffer);
+                if (source < targets.size() && !bucket.isFullAt(now)
+                        && targets.get(source).putIfAbsent(new String(key, StandardCharsets.UTF_8), bucket) == null) {
+                    restored++;
+                }
+            }
+        }
+        return restored;
+    }
+}
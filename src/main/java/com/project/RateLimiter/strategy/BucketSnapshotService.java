@@ -0,0 +1,96 @@
+package com.project.RateLimiter.strategy;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically snapshots the in-memory buckets to disk and restores them on startup,
+ * so a restart does not hand every client a fresh full burst at the same moment.
+ * Snapshots run on a background thread and lock one bucket at a time.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ratelimit.snapshot.enabled", havingValue = "true")
+public class BucketSnapshotService {
+
+    private final TokenBucketStrategy tokenBucketStrategy;
+    private final HierarchicalTokenBucketStrategy hierarchicalStrategy;
+    private final StrategyResolver strategyResolver;
+
+    @Value("${ratelimit.snapshot.path:ratelimit-buckets.snapshot}")
+    private String snapshotPath;
+
+    @Value("${ratelimit.snapshot.interval-ms:5000}")
+    private long intervalMs;
+
+    private final BucketSnapshotFile snapshotFile = new BucketSnapshotFile();
+
+    private ScheduledExecutorService scheduler;
+
+    public BucketSnapshotService(TokenBucketStrategy tokenBucketStrategy,
+                                 HierarchicalTokenBucketStrategy hierarchicalStrategy,
+                                 StrategyResolver strategyResolver) {
+        this.tokenBucketStrategy = tokenBucketStrategy;
+        this.hierarchicalStrategy = hierarchicalStrategy;
+        this.strategyResolver = strategyResolver;
+    }
+
+    @PostConstruct
+    public void restoreAndSchedule() {
+        Path path = Paths.get(snapshotPath);
+        long start = System.nanoTime();
+        try {
+            long restored = snapshotFile.read(path, sources(), System.currentTimeMillis());
+            log.info("Restored {} in-memory buckets from {} in {} ms", restored, path,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.error("Failed to restore in-memory buckets from {}, starting empty", path, e);
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bucket-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshot, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        snapshot();
+    }
+
+    void snapshot() {
+        Path path = Paths.get(snapshotPath);
+        long start = System.nanoTime();
+        try {
+            long written = snapshotFile.write(path, sources());
+            log.debug("Snapshot of {} in-memory buckets written to {} in {} ms", written, path,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.error("Failed to snapshot in-memory buckets to {}", path, e);
+        }
+    }
+
+    // The index of each map is its source id in the snapshot file, so only append to this list
+    private List<Map<String, InMemoryTokenBucket>> sources() {
+        return List.of(
+                tokenBucketStrategy.fallbackBuckets(),
+                hierarchicalStrategy.fallbackBuckets(),
+                strategyResolver.inMemoryBuckets()
+        );
+    }
+}
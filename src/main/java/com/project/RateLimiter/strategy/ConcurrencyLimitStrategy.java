@@ -0,0 +1,177 @@
+package com.project.RateLimiter.strategy;
+
+import com.project.RateLimiter.util.KeyGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of in-flight requests per key instead of the request rate.
+ * A permit is acquired in {@code preHandle} and stored on the request as a {@link ConcurrencyPermit};
+ * the interceptor releases it in {@code afterCompletion}. In Redis every permit is a lease with a TTL,
+ * so permits held by a crashed node expire on their own.
+ * With {@code ratelimit.concurrency.adaptive.enabled} each node additionally caps its own in-flight
+ * requests at an AIMD limit learned from its latencies; the adaptive limit is node-local.
+ */
+@Slf4j
+@Component("concurrency")
+public class ConcurrencyLimitStrategy implements RateLimitingStrategy {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${ratelimit.concurrency.max-in-flight:50}")
+    private int maxInFlight;
+
+    @Value("${ratelimit.concurrency.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${ratelimit.concurrency.adaptive.enabled:false}")
+    private boolean adaptive;
+
+    @Value("${ratelimit.concurrency.adaptive.min-limit:1}")
+    private int minLimit;
+
+    @Value("${ratelimit.concurrency.adaptive.latency-threshold-ms:500}")
+    private long latencyThresholdMs;
+
+    @Value("${ratelimit.concurrency.adaptive.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    private DefaultRedisScript<Long> script;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong permitSequence = new AtomicLong();
+
+    private final ConcurrentHashMap<String, InMemoryConcurrencyLimiter> localLimiters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AdaptiveConcurrencyLimit> adaptiveLimits = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitStrategy(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    public void loadScript() throws IOException {
+        try {
+            script = new DefaultRedisScript<>();
+            script.setScriptText(Files.readString(
+                    Paths.get("src/main/resources/lua/concurrency_limit.lua")));
+            script.setResultType(Long.class);
+            log.info("Loaded Lua script for concurrency limit strategy");
+        } catch (IOException e) {
+            log.error("Failed to load Lua script for concurrency limit strategy", e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isAllowed(HttpServletRequest request) {
+        if (holdsPermit(request)) {
+            return true;
+        }
+        String redisKey = KeyGenerator.generateKey(request) + ":inflight";
+        // The adaptive limit is learned from this node's latencies, so it gates this node's in-flight
+        // requests; the fleet-wide cap in Redis stays at max-in-flight
+        InMemoryConcurrencyLimiter nodeLimiter = adaptive ? localLimiters.computeIfAbsent(redisKey, k -> new InMemoryConcurrencyLimiter()) : null;
+        if (nodeLimiter != null && !nodeLimiter.tryAcquire(currentLimit(redisKey))) {
+            log.info("Adaptive concurrency limit check for key {} (node limit {}): DENIED", redisKey, currentLimit(redisKey));
+            return false;
+        }
+        String permitId = nodeId + ":" + permitSequence.incrementAndGet();
+        try {
+            Long result = redisTemplate.execute(
+                    script,
+                    Collections.singletonList(redisKey),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(leaseMs),
+                    String.valueOf(maxInFlight),
+                    permitId
+            );
+            boolean allowed = result == 1L;
+            log.info("Concurrency limit check for key {} (limit {}): {}", redisKey, maxInFlight, allowed ? "ALLOWED" : "DENIED");
+            if (allowed) {
+                attachPermit(request, redisKey, () -> {
+                    releaseLease(redisKey, permitId);
+                    if (nodeLimiter != null) {
+                        nodeLimiter.release();
+                    }
+                });
+            } else if (nodeLimiter != null) {
+                nodeLimiter.release();
+            }
+            return allowed;
+        } catch (Exception e) {
+            log.error("Error executing concurrency limit script for key {}. Falling back to in-memory limiter.", redisKey, e);
+            if (nodeLimiter != null) {
+                nodeLimiter.release();
+            }
+            return isAllowedLocally(request);
+        }
+    }
+
+    /**
+     * Node-local evaluation, used when Redis is unavailable.
+     */
+    public boolean isAllowedLocally(HttpServletRequest request) {
+        if (holdsPermit(request)) {
+            return true;
+        }
+        String key = KeyGenerator.generateKey(request) + ":inflight";
+        InMemoryConcurrencyLimiter limiter = localLimiters.computeIfAbsent(key, k -> new InMemoryConcurrencyLimiter());
+        boolean allowed = limiter.tryAcquire(currentLimit(key));
+        log.info("[Fallback] Concurrency limit check for key {}: {}", key, allowed ? "ALLOWED" : "DENIED");
+        if (allowed) {
+            attachPermit(request, key, limiter::release);
+        }
+        return allowed;
+    }
+
+    /**
+     * A forwarded or included dispatch passes the interceptor again; it runs under the permit of the
+     * original dispatch instead of acquiring, and overwriting, a second one.
+     */
+    private boolean holdsPermit(HttpServletRequest request) {
+        return request.getAttribute(ConcurrencyPermit.ATTRIBUTE) instanceof ConcurrencyPermit;
+    }
+
+    private int currentLimit(String key) {
+        if (!adaptive) {
+            return maxInFlight;
+        }
+        return adaptiveLimits.computeIfAbsent(key, k ->
+                new AdaptiveConcurrencyLimit(maxInFlight, minLimit, maxInFlight, latencyThresholdMs, backoffRatio)
+        ).getLimit();
+    }
+
+    private void attachPermit(HttpServletRequest request, String key, Runnable releaseAction) {
+        long startNanos = System.nanoTime();
+        request.setAttribute(ConcurrencyPermit.ATTRIBUTE, new ConcurrencyPermit(() -> {
+            releaseAction.run();
+            if (adaptive) {
+                long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                adaptiveLimits.get(key).onSample(latencyMs);
+            }
+        }));
+    }
+
+    private void releaseLease(String redisKey, String permitId) {
+        try {
+            redisTemplate.opsForZSet().remove(redisKey, permitId);
+        } catch (Exception e) {
+            // The lease TTL reclaims the permit
+            log.warn("Failed to release concurrency permit {} for key {}: {}", permitId, redisKey, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.project.RateLimiter.strategy;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An in-flight slot held by a request admitted by {@link ConcurrencyLimitStrategy}.
+ * It is stored on the request and released once the request completes; releasing twice is a no-op.
+ */
+public final class ConcurrencyPermit {
+
+    public static final String ATTRIBUTE = "rateLimitConcurrencyPermit";
+
+    private final Runnable onRelease;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    ConcurrencyPermit(Runnable onRelease) {
+        this.onRelease = onRelease;
+    }
+
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            onRelease.run();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.project.RateLimiter.strategy;
+
+import com.project.RateLimiter.config.RateLimitConfigService;
+import com.project.RateLimiter.dto.RateLimitConfig;
+import com.project.RateLimiter.util.CostCalculator;
+import com.project.RateLimiter.util.KeyGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket evaluated over a hierarchy of keys (tenant, client, route).
+ * A request is admitted only if every configured level admits it; all levels are
+ * checked and consumed in a single Lua call, so the cost is one round-trip regardless of depth.
+ */
+@Slf4j
+@Component("hierarchical_token_bucket")
+public class HierarchicalTokenBucketStrategy implements RateLimitingStrategy {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitConfigService rateLimitConfigService;
+
+    private DefaultRedisScript<Long> script;
+
+    private final ConcurrentHashMap<String, InMemoryTokenBucket> fallbackBuckets = new ConcurrentHashMap<>();
+
+    public HierarchicalTokenBucketStrategy(StringRedisTemplate redisTemplate, RateLimitConfigService rateLimitConfigService) {
+        this.redisTemplate = redisTemplate;
+        this.rateLimitConfigService = rateLimitConfigService;
+    }
+
+    @PostConstruct
+    public void loadScript() throws IOException {
+        try {
+            script = new DefaultRedisScript<>();
+            script.setScriptText(Files.readString(
+                    Paths.get("src/main/resources/lua/hierarchical_token_bucket.lua")));
+            script.setResultType(Long.class);
+            log.info("Loaded Lua script for hierarchical token bucket strategy");
+        } catch (IOException e) {
+            log.error("Failed to load Lua script for hierarchical token bucket strategy", e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isAllowed(HttpServletRequest request) {
+        String routeKey = KeyGenerator.generateKey(request);
+        Map<String, RateLimitConfig> levels = resolveLevels(request, routeKey, false);
+        List<String> keys = new ArrayList<>(levels.keySet());
+        // The route-specific config decides the request cost, which every level is charged
+        long cost = CostCalculator.calculateCost(request, levels.get(routeKey));
+        log.debug("Checking hierarchical rate limit for keys: {}, cost: {}", keys, cost);
+
+        List<String> args = new ArrayList<>(2 + levels.size() * 4);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(String.valueOf(cost));
+        for (RateLimitConfig config : levels.values()) {
+            args.add(String.valueOf(config.getMaxTokens()));
+            args.add(String.valueOf(config.getRefillRate()));
+            args.add(String.valueOf(config.getRefillIntervalMs()));
+            args.add(String.valueOf(config.getGraceLimit()));
+        }
+
+        try {
+            Long result = redisTemplate.execute(script, keys, args.toArray());
+            boolean allowed = result == 1L;
+            log.info("Hierarchical rate limit check for keys {}: {}", keys, allowed ? "ALLOWED" : "DENIED");
+            return allowed;
+        } catch (Exception e) {
+            log.error("Error executing hierarchical rate limit script for keys {}. Falling back to in-memory buckets.", keys, e);
+            return isAllowedLocally(levels, cost);
+        }
+    }
+
+    /**
+     * Redis-free path used while the circuit breaker is open; every level is still checked,
+     * so an exhausted tenant or client quota keeps rejecting during an outage.
+     */
+    public boolean isAllowedLocally(HttpServletRequest request) {
+        String routeKey = KeyGenerator.generateKey(request);
+        Map<String, RateLimitConfig> levels = resolveLevels(request, routeKey, true);
+        return isAllowedLocally(levels, CostCalculator.calculateCost(request, levels.get(routeKey)));
+    }
+
+    private boolean isAllowedLocally(Map<String, RateLimitConfig> levels, long cost) {
+        List<InMemoryTokenBucket> buckets = new ArrayList<>(levels.size());
+        levels.forEach((key, config) -> buckets.add(fallbackBuckets.computeIfAbsent(key, k ->
+                new InMemoryTokenBucket(
+                        config.getMaxTokens(),
+                        config.getGraceLimit(),
+                        config.getRefillRate(),
+                        config.getRefillIntervalMs()
+                )
+        )));
+        boolean allowed = InMemoryTokenBucket.isAllowedAll(buckets, cost);
+        log.info("[Fallback] Hierarchical rate limit check for keys {}: {}", levels.keySet(), allowed ? "ALLOWED" : "DENIED");
+        return allowed;
+    }
+
+    /**
+     * Outer levels (tenant, client, route-wide) only apply when they have an explicit config;
+     * the route-specific key always applies and uses the fallback config when none is stored.
+     *
+     * @param cachedOnly resolve from already cached configs without calling Redis
+     */
+    private Map<String, RateLimitConfig> resolveLevels(HttpServletRequest request, String routeKey, boolean cachedOnly) {
+        List<String> levelKeys = KeyGenerator.generateHierarchyKeys(request);
+
+        Map<String, RateLimitConfig> configured;
+        if (cachedOnly) {
+            configured = rateLimitConfigService.findCachedConfigs(levelKeys);
+        } else {
+            try {
+                configured = rateLimitConfigService.findConfigs(levelKeys);
+            } catch (Exception e) {
+                log.warn("Could not load hierarchical configs for keys {}: {}", levelKeys, e.getMessage());
+                configured = rateLimitConfigService.findCachedConfigs(levelKeys);
+            }
+        }
+
+        Map<String, RateLimitConfig> levels = new LinkedHashMap<>();
+        for (String key : levelKeys) {
+            RateLimitConfig config = configured.get(key);
+            if (config == null && key.equals(routeKey)) {
+                config = rateLimitConfigService.getFallbackConfig(KeyGenerator.resolveApiPath(request));
+            }
+            if (config != null) {
+                levels.put(key, config);
+            }
+        }
+        return levels;
+    }
+
+    ConcurrentHashMap<String, InMemoryTokenBucket> fallbackBuckets() {
+        return fallbackBuckets;
+    }
+}
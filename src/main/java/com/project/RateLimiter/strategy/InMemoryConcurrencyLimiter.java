@@ -0,0 +1,30 @@
+package com.project.RateLimiter.strategy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free in-flight counter for a single key.
+ */
+public class InMemoryConcurrencyLimiter {
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public boolean tryAcquire(int limit) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -1,8 +1,13 @@
 package com.project.RateLimiter.strategy;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class InMemoryTokenBucket {
+    // Size of the state written by writeState: four long parameters, double tokens, two longs
+    static final int STATE_BYTES = 7 * Long.BYTES;
+
     private final long maxTokens;
     private final long graceTokens;
     private final long refillRate;
@@ -22,25 +27,128 @@ public class InMemoryTokenBucket {
         this.lastRefillTimestamp = System.currentTimeMillis();
     }
 
+    private InMemoryTokenBucket(long maxTokens, long graceTokens, long refillRate, long refillIntervalMs,
+                                double tokens, long graceTokensRemaining, long lastRefillTimestamp) {
+        this.maxTokens = maxTokens;
+        this.graceTokens = graceTokens;
+        this.refillRate = refillRate;
+        this.refillIntervalMs = refillIntervalMs;
+        this.tokens = tokens;
+        this.graceTokensRemaining = graceTokensRemaining;
+        this.lastRefillTimestamp = lastRefillTimestamp;
+    }
+
     // Constructor for backward compatibility
     public InMemoryTokenBucket(long maxTokensWithGrace, long refillRate, long refillIntervalMs) {
         this(maxTokensWithGrace, 0, refillRate, refillIntervalMs);
     }
 
     public boolean isAllowed() {
+        return isAllowed(1);
+    }
+
+    /**
+     * Consumes {@code cost} tokens if available; otherwise rejects without consuming anything.
+     */
+    public boolean isAllowed(long cost) {
+        synchronized (lock) {
+            refill();
+            if (!canConsume(cost)) {
+                return false;
+            }
+            consume(cost);
+            return true;
+        }
+    }
+
+    public static boolean isAllowedAll(List<InMemoryTokenBucket> buckets) {
+        return isAllowedAll(buckets, 1);
+    }
+
+    /**
+     * Admits a request only if every bucket can spare {@code cost} tokens, consuming from all of them or none.
+     * Buckets must be passed in a stable order (outermost level first) so concurrent callers
+     * always lock them in the same sequence.
+     */
+    public static boolean isAllowedAll(List<InMemoryTokenBucket> buckets, long cost) {
+        return tryConsumeAll(buckets, 0, cost);
+    }
+
+    private static boolean tryConsumeAll(List<InMemoryTokenBucket> buckets, int index, long cost) {
+        if (index < buckets.size()) {
+            InMemoryTokenBucket bucket = buckets.get(index);
+            synchronized (bucket.lock) {
+                bucket.refill();
+                return tryConsumeAll(buckets, index + 1, cost);
+            }
+        }
+        // All locks held: check every level before touching any of them
+        for (InMemoryTokenBucket bucket : buckets) {
+            if (!bucket.canConsume(cost)) {
+                return false;
+            }
+        }
+        for (InMemoryTokenBucket bucket : buckets) {
+            bucket.consume(cost);
+        }
+        return true;
+    }
+
+    private boolean canConsume(long cost) {
+        return Math.floor(tokens) + graceTokensRemaining >= cost;
+    }
+
+    private void consume(long cost) {
+        // Normal tokens first, grace tokens cover the remainder
+        long fromTokens = (long) Math.min(Math.floor(tokens), cost);
+        tokens -= fromTokens;
+        graceTokensRemaining -= cost - fromTokens;
+    }
+
+    /**
+     * Writes the bucket state for a snapshot. Returns false without writing when the bucket is full,
+     * since a full bucket is indistinguishable from a fresh one and need not be persisted.
+     */
+    boolean writeState(ByteBuffer buffer) {
         synchronized (lock) {
             refill();
-            if (tokens >= 1) {
-                // Consume 1 normal token
-                tokens -= 1;
-                return true;
-            } else if (graceTokensRemaining > 0) {
-                // Consume 1 grace token
-                graceTokensRemaining -= 1;
-                return true;
-            } else {
+            if (tokens >= maxTokens && graceTokensRemaining >= graceTokens) {
                 return false;
             }
+            buffer.putLong(maxTokens)
+                    .putLong(graceTokens)
+                    .putLong(refillRate)
+                    .putLong(refillIntervalMs)
+                    .putDouble(tokens)
+                    .putLong(graceTokensRemaining)
+                    .putLong(lastRefillTimestamp);
+            return true;
+        }
+    }
+
+    /**
+     * Restores a bucket written by {@link #writeState}. The original refill timestamp is kept,
+     * so the time elapsed since the snapshot is refilled on the next request.
+     */
+    static InMemoryTokenBucket readState(ByteBuffer buffer) {
+        return new InMemoryTokenBucket(
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getDouble(),
+                buffer.getLong(),
+                buffer.getLong()
+        );
+    }
+
+    /**
+     * Whether the bucket will have refilled completely by {@code now}; such buckets need not be restored.
+     */
+    boolean isFullAt(long now) {
+        synchronized (lock) {
+            double refilled = tokens + (Math.max(0, now - lastRefillTimestamp) / (double) refillIntervalMs) * refillRate;
+            return refilled >= maxTokens && graceTokensRemaining >= graceTokens;
         }
     }
 
@@ -55,4 +163,4 @@ public class InMemoryTokenBucket {
             }
         }
     }
-} 
\ No newline at end of file
+}
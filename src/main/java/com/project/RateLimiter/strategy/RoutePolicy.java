@@ -0,0 +1,16 @@
+package com.project.RateLimiter.strategy;
+
+import lombok.Value;
+
+/**
+ * Fully resolved admission pipeline of one handler, built once at startup by {@link RoutePolicyIndex}.
+ */
+@Value
+public class RoutePolicy {
+    // Route patterns of the handler, e.g. /users/{id}
+    String route;
+    String strategyName;
+    // Cost declared on @RateLimit, null when the handler is not annotated or leaves the cost unset
+    Integer declaredCost;
+    RateLimitingStrategy limiter;
+}
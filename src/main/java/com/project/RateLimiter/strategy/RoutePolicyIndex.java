@@ -0,0 +1,85 @@
+package com.project.RateLimiter.strategy;
+
+import com.project.RateLimiter.annotation.RateLimit;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps every controller method to its {@link RoutePolicy}, built once from the handler mappings
+ * and {@code @RateLimit} metadata, so the interceptor's hot path is a single map lookup.
+ * Handlers that are not controller methods (static resources, actuator) share the default policy.
+ * The index is built once all singletons exist, which is before the web server starts accepting requests.
+ */
+@Slf4j
+@Component
+public class RoutePolicyIndex implements SmartInitializingSingleton {
+
+    private final StrategyResolver strategyResolver;
+    // Looked up lazily: the handler mapping is created with the interceptor, which depends on this index
+    private final ApplicationContext applicationContext;
+
+    @Value("${ratelimit.strategy:token_bucket}")
+    private String defaultStrategy;
+
+    private RoutePolicy defaultPolicy;
+
+    // Keyed by Method: request-time HandlerMethods carry the resolved bean and are not equal to the mapped ones
+    private volatile Map<Method, RoutePolicy> policies = Map.of();
+
+    public RoutePolicyIndex(StrategyResolver strategyResolver, ApplicationContext applicationContext) {
+        this.strategyResolver = strategyResolver;
+        this.applicationContext = applicationContext;
+    }
+
+    @PostConstruct
+    public void initDefaultPolicy() {
+        if (!strategyResolver.hasStrategy(defaultStrategy)) {
+            log.warn("Unknown rate limiting strategy {} in ratelimit.strategy, using token_bucket", defaultStrategy);
+        }
+        defaultPolicy = new RoutePolicy("*", defaultStrategy, null, strategyResolver.resolve(defaultStrategy));
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RequestMappingHandlerMapping handlerMapping = applicationContext
+                .getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+
+        Map<Method, RoutePolicy> index = new HashMap<>();
+        handlerMapping.getHandlerMethods().forEach((mapping, handlerMethod) -> {
+            RateLimit rateLimit = handlerMethod.getMethodAnnotation(RateLimit.class);
+            String strategyName = rateLimit != null && !rateLimit.strategy().isEmpty() ? rateLimit.strategy() : defaultStrategy;
+            if (!strategyResolver.hasStrategy(strategyName)) {
+                log.warn("Unknown rate limiting strategy {} on {}, using token_bucket", strategyName, handlerMethod);
+            }
+            RoutePolicy policy = new RoutePolicy(
+                    String.join(",", mapping.getPatternValues()),
+                    strategyName,
+                    rateLimit != null && rateLimit.cost() > 0 ? rateLimit.cost() : null,
+                    strategyResolver.resolve(strategyName)
+            );
+            index.put(handlerMethod.getMethod(), policy);
+        });
+        policies = Map.copyOf(index);
+        log.info("Built rate limit policy index for {} handler methods", policies.size());
+    }
+
+    public RoutePolicy getPolicy(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            RoutePolicy policy = policies.get(handlerMethod.getMethod());
+            if (policy != null) {
+                return policy;
+            }
+        }
+        return defaultPolicy;
+    }
+}
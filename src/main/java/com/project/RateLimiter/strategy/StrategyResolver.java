@@ -2,13 +2,15 @@
 
     import lombok.extern.slf4j.Slf4j;
     import org.springframework.beans.factory.annotation.Autowired;
-    import org.springframework.beans.factory.annotation.Qualifier;
     import org.springframework.stereotype.Component;
 
     import java.util.HashMap;
     import java.util.List;
     import java.util.Map;
+    import java.util.concurrent.ConcurrentHashMap;
     import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+    import jakarta.annotation.PostConstruct;
+    import com.project.RateLimiter.util.CostCalculator;
     import com.project.RateLimiter.util.KeyGenerator;
     import com.project.RateLimiter.config.RateLimitConfigService;
     import com.project.RateLimiter.dto.RateLimitConfig;
@@ -20,16 +22,13 @@
 
         private final Map<String, RateLimitingStrategy> strategyMap;
 
-        @Autowired
-        @Qualifier("token_bucket")
-        private RateLimitingStrategy redisStrategy;
-
         @Autowired
         private RateLimitConfigService configService;
 
+        private final ConcurrentHashMap<String, InMemoryTokenBucket> buckets = new ConcurrentHashMap<>();
+
         // InMemoryTokenBucket is not a RateLimitingStrategy, so we wrap it
         private final RateLimitingStrategy inMemoryStrategy = new RateLimitingStrategy() {
-            private final java.util.concurrent.ConcurrentHashMap<String, com.project.RateLimiter.strategy.InMemoryTokenBucket> buckets = new java.util.concurrent.ConcurrentHashMap<>();
             @Override
             public boolean isAllowed(HttpServletRequest request) {
                 String key = KeyGenerator.generateKey(request);
@@ -43,13 +42,42 @@
                         config.getRefillIntervalMs()
                     )
                 );
-                return bucket.isAllowed();
+                return bucket.isAllowed(CostCalculator.calculateCost(request, config));
             }
         };
     
         @Autowired
         private CircuitBreaker redisCircuitBreaker;
 
+        @Autowired
+        private ConcurrencyLimitStrategy concurrencyStrategy;
+
+        @Autowired
+        private ApproximateRateLimitStrategy approximateStrategy;
+
+        @Autowired
+        private HierarchicalTokenBucketStrategy hierarchicalStrategy;
+
+        // Strategies that are not single-key token buckets need their own Redis-free fallback
+        private final Map<String, RateLimitingStrategy> localFallbackMap = new HashMap<>();
+
+        // Circuit-breaker-guarded pipeline per strategy, built once so resolve() does not allocate
+        private Map<String, RateLimitingStrategy> pipelineMap;
+
+        @PostConstruct
+        public void buildPipelines() {
+            localFallbackMap.put("concurrency", concurrencyStrategy::isAllowedLocally);
+            // Every level must still admit, not just the route key
+            localFallbackMap.put("hierarchical_token_bucket", hierarchicalStrategy::isAllowedLocally);
+            // Admission is already local; only the periodic sync talks to Redis
+            localFallbackMap.put("approximate", approximateStrategy);
+
+            Map<String, RateLimitingStrategy> pipelines = new HashMap<>();
+            strategyMap.forEach((name, strategy) ->
+                    pipelines.put(name, guard(strategy, localFallbackMap.getOrDefault(name, inMemoryStrategy))));
+            pipelineMap = Map.copyOf(pipelines);
+        }
+
         @Autowired
         public StrategyResolver(List<RateLimitingStrategy> strategies) {
             strategyMap = new HashMap<>();
@@ -59,17 +87,33 @@
             }
         }
 
+        ConcurrentHashMap<String, InMemoryTokenBucket> inMemoryBuckets() {
+            return buckets;
+        }
+
+        public boolean hasStrategy(String strategyName) {
+            return pipelineMap.containsKey(strategyName);
+        }
+
+        /**
+         * Returns the prebuilt pipeline for the strategy; unknown names resolve to token_bucket.
+         */
         public RateLimitingStrategy resolve(String strategyName) {
-            if (redisCircuitBreaker.getState() == CircuitBreaker.State.OPEN) {
-                log.warn("Circuit breaker OPEN. Using in-memory fallback strategy.");
-                return inMemoryStrategy;
-            }
+            RateLimitingStrategy pipeline = pipelineMap.get(strategyName);
+            return pipeline != null ? pipeline : pipelineMap.get("token_bucket");
+        }
+
+        private RateLimitingStrategy guard(RateLimitingStrategy strategy, RateLimitingStrategy localStrategy) {
             return request -> {
+                if (redisCircuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                    log.warn("Circuit breaker OPEN. Using in-memory fallback strategy.");
+                    return localStrategy.isAllowed(request);
+                }
                 try {
-                    return redisCircuitBreaker.executeSupplier(() -> redisStrategy.isAllowed(request));
+                    return redisCircuitBreaker.executeSupplier(() -> strategy.isAllowed(request));
                 } catch (Exception e) {
                     log.warn("Redis unavailable, falling back to in-memory rate limiting: {}", e.getMessage());
-                    return inMemoryStrategy.isAllowed(request);
+                    return localStrategy.isAllowed(request);
                 }
             };
         }
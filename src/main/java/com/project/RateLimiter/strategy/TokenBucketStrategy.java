@@ -2,6 +2,7 @@ package com.project.RateLimiter.strategy;
 
 import com.project.RateLimiter.config.RateLimitConfigService;
 import com.project.RateLimiter.dto.RateLimitConfig;
+import com.project.RateLimiter.util.CostCalculator;
 import com.project.RateLimiter.util.KeyGenerator;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -25,7 +26,7 @@ public class TokenBucketStrategy implements RateLimitingStrategy {
     private final StringRedisTemplate redisTemplate;
     private final RateLimitConfigService rateLimitConfigService;
 
-    private String luaScript;
+    private DefaultRedisScript<Long> script;
 
     private final ConcurrentHashMap<String, InMemoryTokenBucket> fallbackBuckets = new ConcurrentHashMap<>();
 
@@ -37,8 +38,10 @@ public class TokenBucketStrategy implements RateLimitingStrategy {
     @PostConstruct
     public void loadScript() throws IOException {
         try {
-            luaScript = Files.readString(
-                    Paths.get("src/main/resources/lua/token_bucket.lua"));
+            script = new DefaultRedisScript<>();
+            script.setScriptText(Files.readString(
+                    Paths.get("src/main/resources/lua/token_bucket.lua")));
+            script.setResultType(Long.class);
             log.info("Loaded Lua script for token bucket strategy");
         } catch (IOException e) {
             log.error("Failed to load Lua script for token bucket strategy", e);
@@ -52,10 +55,8 @@ public class TokenBucketStrategy implements RateLimitingStrategy {
     public boolean isAllowed(HttpServletRequest request) {
         String redisKey = KeyGenerator.generateKey(request);
         RateLimitConfig config = rateLimitConfigService.getConfig(request);
-        log.debug("Checking rate limit for key: {}, config: {}", redisKey, config);
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setScriptText(luaScript);
-        script.setResultType(Long.class);
+        long cost = CostCalculator.calculateCost(request, config);
+        log.debug("Checking rate limit for key: {}, config: {}, cost: {}", redisKey, config, cost);
         List<String> keys = Collections.singletonList(redisKey);
         long now = System.currentTimeMillis();
         try {
@@ -66,7 +67,8 @@ public class TokenBucketStrategy implements RateLimitingStrategy {
                     String.valueOf(config.getRefillRate()),
                     String.valueOf(config.getRefillIntervalMs()),
                     String.valueOf(now),
-                    String.valueOf(config.getGraceLimit())
+                    String.valueOf(config.getGraceLimit()),
+                    String.valueOf(cost)
             );
             boolean allowed = result == 1L;
             log.info("Rate limit check for key {}: {}", redisKey, allowed ? "ALLOWED" : "DENIED");
@@ -81,9 +83,13 @@ public class TokenBucketStrategy implements RateLimitingStrategy {
                     config.getRefillIntervalMs()
                 )
             );
-            boolean allowed = bucket.isAllowed();
+            boolean allowed = bucket.isAllowed(cost);
             log.info("[Fallback] Rate limit check for key {}: {}", redisKey, allowed ? "ALLOWED" : "DENIED");
             return allowed;
         }
     }
-}
\ No newline at end of file
+
+    ConcurrentHashMap<String, InMemoryTokenBucket> fallbackBuckets() {
+        return fallbackBuckets;
+    }
+}
@@ -0,0 +1,33 @@
+package com.project.RateLimiter.util;
+
+import com.project.RateLimiter.dto.RateLimitConfig;
+import jakarta.servlet.http.HttpServletRequest;
+
+public class CostCalculator {
+
+    /**
+     * Request attribute holding the cost declared on {@code @RateLimit}; it takes precedence over the configured cost.
+     */
+    public static final String COST_ATTRIBUTE = "rateLimitCost";
+
+    /**
+     * Number of tokens a request consumes: the declared or configured base cost,
+     * plus {@code costPerKb} for every started KB of request payload. A payload of unknown length
+     * (chunked) on a route with {@code costPerKb} is charged the largest cost the bucket can admit.
+     */
+    public static long calculateCost(HttpServletRequest request, RateLimitConfig config) {
+        Object declaredCost = request.getAttribute(COST_ATTRIBUTE);
+        long cost = declaredCost instanceof Integer value ? value : config.getCost();
+
+        if (config.getCostPerKb() > 0) {
+            long contentLength = request.getContentLengthLong();
+            if (contentLength > 0) {
+                cost += ((contentLength + 1023) / 1024) * config.getCostPerKb();
+            } else if (contentLength < 0 && request.getHeader("Transfer-Encoding") != null) {
+                // The size is unknown until the body is read, so streaming must not dodge the size-based cost
+                cost = Math.max(cost, config.getMaxTokens() + config.getGraceLimit());
+            }
+        }
+        return Math.max(1, cost);
+    }
+}
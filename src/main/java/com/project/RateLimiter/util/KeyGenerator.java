@@ -1,6 +1,10 @@
 package com.project.RateLimiter.util;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class KeyGenerator {
     public static String generateKey(HttpServletRequest request) {
@@ -8,7 +12,7 @@ public class KeyGenerator {
         String userId = (String) request.getAttribute("userId"); // or from session/token
         String clientId = request.getHeader("X-Client-Id");
         String ip = request.getRemoteAddr();
-        String apiPath = request.getRequestURI();
+        String apiPath = resolveApiPath(request);
 
         // Treat localhost/loopback addresses as if no IP is available
         if (ip != null && (ip.equals("127.0.0.1") || ip.equals("0:0:0:0:0:0:0:1") || ip.equals("localhost"))) {
@@ -27,4 +31,41 @@ public class KeyGenerator {
             return "rate:global";
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Route pattern the request was mapped to (e.g. /users/{id}), so path variables don't
+     * produce unbounded distinct keys. Falls back to the raw URI for unmapped requests.
+     */
+    public static String resolveApiPath(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    /**
+     * Builds every quota level a request has to pass, outermost first:
+     * tenant, client, the route-specific key from {@link #generateKey} and the route-wide ceiling.
+     * The order is stable across requests so callers can lock levels in sequence.
+     */
+    public static List<String> generateHierarchyKeys(HttpServletRequest request) {
+        String tenantId = request.getHeader("X-Tenant-Id");
+        String clientId = request.getHeader("X-Client-Id");
+        String apiPath = resolveApiPath(request);
+
+        List<String> keys = new ArrayList<>(4);
+        if (tenantId != null) {
+            keys.add(String.format("rate:tenant:%s", tenantId));
+        }
+        if (clientId != null) {
+            keys.add(String.format("rate:client:%s", clientId));
+        }
+        String routeKey = generateKey(request);
+        keys.add(routeKey);
+        if (apiPath != null) {
+            String apiKey = String.format("rate:api:%s", apiPath);
+            if (!apiKey.equals(routeKey)) {
+                keys.add(apiKey);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,26 @@
+-- KEYS[1] = Redis key of the in-flight lease set (sorted set of permit ids scored by lease expiry)
+-- ARGV[1] = current_timestamp in ms (from Java)
+-- ARGV[2] = lease_ms (how long a permit is held if it is never released)
+-- ARGV[3] = limit (max in-flight requests for this key)
+-- ARGV[4] = permit_id (unique per acquisition)
+
+local key = KEYS[1]
+local now = tonumber(ARGV[1])
+local lease_ms = tonumber(ARGV[2])
+local limit = tonumber(ARGV[3])
+local permit_id = ARGV[4]
+
+-- Drop expired leases so permits held by crashed nodes are reclaimed
+redis.call("ZREMRANGEBYSCORE", key, "-inf", now)
+
+local in_flight = redis.call("ZCARD", key)
+if in_flight >= limit then
+  redis.log(redis.LOG_NOTICE, "[ConcurrencyLimit] Request rejected: key=" .. tostring(key) .. ", in_flight=" .. tostring(in_flight) .. ", limit=" .. tostring(limit))
+  return 0
+end
+
+redis.call("ZADD", key, now + lease_ms, permit_id)
+redis.call("PEXPIRE", key, lease_ms)
+
+-- Return 1 if a permit was acquired, 0 if the key is at its limit
+return 1
@@ -0,0 +1,65 @@
+-- Hierarchical token bucket: a request must be admitted by every level,
+-- and tokens are consumed only when all levels admit it.
+-- KEYS[i] = Redis key of level i, outermost first (tenant -> client -> route)
+-- ARGV[1] = current_timestamp in ms (from Java)
+-- ARGV[2] = cost (tokens consumed at every level, defaults to 1)
+-- ARGV[3 + (i - 1) * 4] = max_tokens of level i
+-- ARGV[4 + (i - 1) * 4] = refill_rate of level i (tokens added per interval)
+-- ARGV[5 + (i - 1) * 4] = refill_interval_ms of level i
+-- ARGV[6 + (i - 1) * 4] = grace_limit of level i (additional burst tokens that don't refill)
+
+local now = tonumber(ARGV[1])
+local cost = tonumber(ARGV[2]) or 1
+local levels = {}
+
+-- First pass: refill every level and check that it can admit the request
+for i, key in ipairs(KEYS) do
+  local base = 3 + (i - 1) * 4
+  local max_tokens = tonumber(ARGV[base])
+  local refill_rate = tonumber(ARGV[base + 1])
+  local interval_ms = tonumber(ARGV[base + 2])
+  local grace_limit = tonumber(ARGV[base + 3]) or 0
+
+  -- Defensive check (Optional)
+  if not interval_ms then
+    redis.log(redis.LOG_WARNING, "[HierarchicalTokenBucket] interval_ms is nil for key: " .. tostring(key))
+    return redis.error_reply("interval_ms is nil")
+  end
+
+  local data = redis.call("HMGET", key, "tokens", "grace_tokens", "last_refill")
+  local tokens = tonumber(data[1]) or max_tokens
+  local grace_tokens = tonumber(data[2]) or grace_limit
+  local last_refill = tonumber(data[3]) or now
+
+  -- Only whole intervals refill; keep the remainder so frequent requests don't starve the refill
+  local intervals = math.floor((now - last_refill) / interval_ms)
+  if intervals > 0 then
+    tokens = math.min(max_tokens, tokens + intervals * refill_rate)
+    last_refill = last_refill + intervals * interval_ms
+  end
+  if tokens >= max_tokens then
+    last_refill = now
+  end
+
+  if math.max(tokens, 0) + grace_tokens < cost then
+    redis.log(redis.LOG_NOTICE, "[HierarchicalTokenBucket] Request throttled at level " .. tostring(i) .. ": key=" .. tostring(key))
+    return 0
+  end
+
+  levels[i] = { key = key, tokens = tokens, grace_tokens = grace_tokens, last_refill = last_refill, interval_ms = interval_ms }
+end
+
+-- Second pass: every level admitted, consume the cost from each (normal tokens first, then grace)
+for _, level in ipairs(levels) do
+  local from_tokens = math.min(math.max(level.tokens, 0), cost)
+  level.tokens = level.tokens - from_tokens
+  level.grace_tokens = level.grace_tokens - (cost - from_tokens)
+  redis.call("HMSET", level.key, "tokens", level.tokens, "grace_tokens", level.grace_tokens, "last_refill", level.last_refill)
+  -- Keys that also hold a config (e.g. tenant ceilings) must not expire with the bucket state
+  if redis.call("HEXISTS", level.key, "maxTokens") == 0 then
+    redis.call("PEXPIRE", level.key, level.interval_ms * 2)
+  end
+end
+
+-- Return 1 if allowed, 0 if throttled
+return 1
@@ -4,6 +4,7 @@
 -- ARGV[3] = refill_interval_ms (e.g., 1000ms = 1 second)
 -- ARGV[4] = current_timestamp in ms (from Java)
 -- ARGV[5] = grace_limit (additional burst tokens that don't refill)
+-- ARGV[6] = cost (tokens consumed by this request, defaults to 1)
 
 local key = KEYS[1]
 local max_tokens = tonumber(ARGV[1])
@@ -11,6 +12,7 @@ local refill_rate = tonumber(ARGV[2])
 local interval_ms = tonumber(ARGV[3])
 local now = tonumber(ARGV[4]) -- Use the passed timestamp!
 local grace_limit = tonumber(ARGV[5]) or 0
+local cost = tonumber(ARGV[6]) or 1
 
 redis.log(redis.LOG_NOTICE, "[TokenBucket] Start: key=" .. tostring(key) .. ", max_tokens=" .. tostring(max_tokens) .. ", refill_rate=" .. tostring(refill_rate) .. ", interval_ms=" .. tostring(interval_ms) .. ", now=" .. tostring(now) .. ", grace_limit=" .. tostring(grace_limit))
 
@@ -36,24 +38,25 @@ tokens = math.min(max_tokens, tokens + refill)
 redis.log(redis.LOG_NOTICE, "[TokenBucket] After refill: tokens=" .. tostring(tokens) .. ", refill=" .. tostring(refill) .. ", delta=" .. tostring(delta))
 
 -- Should we allow the request?
+-- Requests costing more than what is available are rejected without partial consumption
 local allowed = 0
-if tokens > 0 then
-  -- Consume 1 normal token
-  tokens = tokens - 1
+if math.max(tokens, 0) + grace_tokens >= cost then
+  -- Consume normal tokens first, grace tokens cover the remainder
+  local from_tokens = math.min(math.max(tokens, 0), cost)
+  tokens = tokens - from_tokens
+  grace_tokens = grace_tokens - (cost - from_tokens)
   allowed = 1
-  redis.log(redis.LOG_NOTICE, "[TokenBucket] Request allowed using normal token. tokens left=" .. tostring(tokens) .. ", grace_tokens=" .. tostring(grace_tokens))
-elseif grace_tokens > 0 then
-  -- Consume 1 grace token
-  grace_tokens = grace_tokens - 1
-  allowed = 1
-  redis.log(redis.LOG_NOTICE, "[TokenBucket] Request allowed using grace token. tokens left=" .. tostring(tokens) .. ", grace_tokens left=" .. tostring(grace_tokens))
+  redis.log(redis.LOG_NOTICE, "[TokenBucket] Request allowed. cost=" .. tostring(cost) .. ", tokens left=" .. tostring(tokens) .. ", grace_tokens left=" .. tostring(grace_tokens))
 else
   redis.log(redis.LOG_NOTICE, "[TokenBucket] Request throttled. tokens left=" .. tostring(tokens) .. ", grace_tokens left=" .. tostring(grace_tokens))
 end
 
 -- Store updated state
 redis.call("HMSET", key, "tokens", tokens, "grace_tokens", grace_tokens, "last_refill", now)
-redis.call("PEXPIRE", key, interval_ms * 2)
+-- Keys that also hold a config (written by the admin API) must not expire with the bucket state
+if redis.call("HEXISTS", key, "maxTokens") == 0 then
+  redis.call("PEXPIRE", key, interval_ms * 2)
+end
 
 redis.log(redis.LOG_NOTICE, "[TokenBucket] State updated: key=" .. tostring(key) .. ", tokens=" .. tostring(tokens) .. ", grace_tokens=" .. tostring(grace_tokens) .. ", last_refill=" .. tostring(now))
 
@@ -0,0 +1,81 @@
+package com.project.RateLimiter.config;
+
+import com.project.RateLimiter.dto.RateLimitConfig;
+import com.project.RateLimiter.exception.InvalidRateLimitConfigException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RateLimitConfigAdminServiceTests {
+
+	private static final String KEY = "rate:tenant:acme";
+
+	private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+	@SuppressWarnings("unchecked")
+	private final ValueOperations<String, String> values = mock(ValueOperations.class);
+	private final RateLimitConfigAdminService adminService = new RateLimitConfigAdminService(redisTemplate, null);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ReflectionTestUtils.setField(adminService, "batchSize", 1000);
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(redisTemplate.opsForStream()).thenReturn(mock(StreamOperations.class));
+	}
+
+	@Test
+	void rejectsKeysOutsideTheRateNamespace() {
+		assertInvalid("ratelimit:config:version", new RateLimitConfig(10, 1, 60000, 0));
+		assertInvalid(" ", new RateLimitConfig(10, 1, 60000, 0));
+		assertThrows(InvalidRateLimitConfigException.class, () -> adminService.deleteConfig("tenant:acme"));
+		verifyNoInteractions(redisTemplate);
+	}
+
+	@Test
+	void rejectsOutOfRangeFields() {
+		assertInvalid(KEY, new RateLimitConfig(0, 1, 60000, 0));
+		assertInvalid(KEY, new RateLimitConfig(10, 1, 0, 0));
+		assertInvalid(KEY, new RateLimitConfig(10, 1, 60000, -1));
+		assertInvalid(KEY, new RateLimitConfig(10, 1, 60000, 0, 0, 0));
+		assertInvalid(KEY, new RateLimitConfig(10, 1, 60000, 0, 1, -1));
+		verifyNoInteractions(redisTemplate);
+	}
+
+	@Test
+	void rejectsCostsNoBucketCanCover() {
+		assertInvalid(KEY, new RateLimitConfig(10, 1, 60000, 2, 13, 0));
+
+		when(values.increment(RateLimitConfigAdminService.VERSION_KEY, 1L)).thenReturn(1L);
+		assertEquals(1, adminService.putConfig(KEY, new RateLimitConfig(10, 1, 60000, 2, 12, 0)));
+	}
+
+	@Test
+	void bulkImportWritesNothingIfAnyEntryIsInvalid() {
+		Map<String, RateLimitConfig> configs = new LinkedHashMap<>();
+		configs.put(KEY, new RateLimitConfig(10, 1, 60000, 0));
+		configs.put("rate:tenant:other", new RateLimitConfig(10, 1, 60000, 0, 11, 0));
+
+		assertThrows(InvalidRateLimitConfigException.class, () -> adminService.importConfigs(configs));
+		verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+	}
+
+	private void assertInvalid(String key, RateLimitConfig config) {
+		assertThrows(InvalidRateLimitConfigException.class, () -> adminService.putConfig(key, config));
+	}
+}
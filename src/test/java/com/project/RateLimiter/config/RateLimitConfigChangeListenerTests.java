@@ -0,0 +1,87 @@
+package com.project.RateLimiter.config;
+
+import com.project.RateLimiter.dto.RateLimitConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Feeds a stubbed change stream through the listener into a real config cache.
+ */
+class RateLimitConfigChangeListenerTests {
+
+	private static final String KEY = "rate:tenant:acme";
+	private static final String DELETED_KEY = "rate:tenant:gone";
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void changesAreAppliedInStreamOrder() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		StreamOperations<String, Object, Object> streams = mock(StreamOperations.class);
+		when(redisTemplate.opsForStream()).thenReturn(streams);
+		when(streams.reverseRange(anyString(), any(Range.class), any(Limit.class))).thenReturn(List.of());
+		when(streams.read(any(StreamReadOptions.class), any(StreamOffset.class))).thenReturn(List.of(
+				change("1-0", put(KEY, 10, 1)),
+				change("2-0", put(DELETED_KEY, 10, 2)),
+				change("3-0", put(KEY, 20, 3)),
+				change("4-0", Map.of("key", DELETED_KEY, "op", "DELETE", "version", "4")),
+				// Malformed entries are skipped without stopping the batch
+				change("5-0", Map.of("key", KEY, "op", "PUT", "version", "not-a-number")),
+				change("6-0", put("rate:tenant:late", 30, 6))
+		));
+
+		RateLimitConfigService configService = new RateLimitConfigService();
+		ReflectionTestUtils.setField(configService, "cacheMaxEntries", 100);
+		ReflectionTestUtils.setField(configService, "positiveCacheMs", 60000L);
+		ReflectionTestUtils.setField(configService, "negativeCacheMs", 60000L);
+		RateLimitConfigChangeListener listener = new RateLimitConfigChangeListener(redisTemplate, configService);
+		ReflectionTestUtils.setField(listener, "readBatchSize", 1000);
+
+		listener.poll();
+
+		assertEquals(20, configService.findCachedConfigs(List.of(KEY)).get(KEY).getMaxTokens());
+		assertTrue(configService.findCachedConfigs(List.of(DELETED_KEY)).isEmpty());
+		assertEquals(30, configService.findCachedConfigs(List.of("rate:tenant:late")).get("rate:tenant:late").getMaxTokens());
+		assertEquals(6, configService.getAppliedVersion());
+		assertEquals("6-0", ReflectionTestUtils.getField(listener, "lastId"));
+	}
+
+	private static Map<Object, Object> put(String key, int maxTokens, long version) {
+		Map<Object, Object> change = new HashMap<>();
+		RateLimitConfig config = new RateLimitConfig(maxTokens, 1, 60000, 0);
+		change.put("maxTokens", String.valueOf(config.getMaxTokens()));
+		change.put("refillRate", String.valueOf(config.getRefillRate()));
+		change.put("refillIntervalMs", String.valueOf(config.getRefillIntervalMs()));
+		change.put("graceLimit", String.valueOf(config.getGraceLimit()));
+		change.put("key", key);
+		change.put("op", "PUT");
+		change.put("version", String.valueOf(version));
+		return change;
+	}
+
+	private static MapRecord<String, Object, Object> change(String id, Map<?, ?> fields) {
+		return StreamRecords.newRecord()
+				.in(RateLimitConfigAdminService.CHANGE_STREAM)
+				.withId(RecordId.of(id))
+				.ofMap(new HashMap<Object, Object>(fields));
+	}
+}
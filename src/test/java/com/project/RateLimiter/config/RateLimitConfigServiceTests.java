@@ -0,0 +1,151 @@
+package com.project.RateLimiter.config;
+
+import com.project.RateLimiter.dto.RateLimitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exercises the parsed config cache against a stubbed Redis pipeline.
+ */
+class RateLimitConfigServiceTests {
+
+	private static final String KEY = "rate:client:web:/ping";
+	private static final RateLimitConfig STORED = new RateLimitConfig(10, 1, 60000, 2);
+	private static final RateLimitConfig CHANGED = new RateLimitConfig(20, 2, 60000, 0);
+
+	private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+	private RateLimitConfigService configService;
+
+	@BeforeEach
+	void setUp() {
+		configService = configService(60000, 60000);
+	}
+
+	@Test
+	void missingConfigIsRememberedForTheNegativeTtl() {
+		stubLoads(Map.of(), fields(STORED));
+		assertTrue(configService.findConfigs(List.of(KEY)).isEmpty());
+		assertTrue(configService.findConfigs(List.of(KEY)).isEmpty());
+		verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+	}
+
+	@Test
+	void configWrittenForAMissingKeyIsPickedUpOnceTheNegativeEntryExpires() {
+		configService = configService(0, 60000);
+		stubLoads(Map.of(), fields(STORED));
+		assertTrue(configService.findConfigs(List.of(KEY)).isEmpty());
+		assertEquals(STORED, configService.findConfigs(List.of(KEY)).get(KEY));
+	}
+
+	@Test
+	void cachedConfigIsKeptForThePositiveTtl() {
+		stubLoads(fields(STORED), fields(CHANGED));
+		assertEquals(STORED, configService.findConfigs(List.of(KEY)).get(KEY));
+		assertEquals(STORED, configService.findConfigs(List.of(KEY)).get(KEY));
+		verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+	}
+
+	@Test
+	void changeMissedOnTheStreamIsPickedUpOnceThePositiveEntryExpires() {
+		configService = configService(60000, 0);
+		stubLoads(fields(STORED), fields(CHANGED));
+		assertEquals(STORED, configService.findConfigs(List.of(KEY)).get(KEY));
+		assertEquals(CHANGED, configService.findConfigs(List.of(KEY)).get(KEY));
+	}
+
+	@Test
+	void changeAppliedWhileLoadingWinsOverTheLoadedValue() {
+		when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+			configService.applyChange(KEY, CHANGED, 7);
+			return List.of(fields(STORED));
+		});
+
+		assertEquals(CHANGED, configService.findConfigs(List.of(KEY)).get(KEY));
+		assertEquals(7, configService.getAppliedVersion());
+	}
+
+	@Test
+	void appliedChangesReplaceAndDeleteCachedConfigs() {
+		configService.applyChange(KEY, STORED, 3);
+		configService.applyChange(KEY, CHANGED, 4);
+		assertEquals(CHANGED, configService.findCachedConfigs(List.of(KEY)).get(KEY));
+
+		configService.applyChange(KEY, null, 5);
+		assertTrue(configService.findCachedConfigs(List.of(KEY)).isEmpty());
+
+		// Versions only move forward
+		configService.applyChange("rate:client:web:/other", STORED, 2);
+		assertEquals(5, configService.getAppliedVersion());
+	}
+
+	@Test
+	void fullCacheEvictsMissingConfigsFirst() {
+		for (int i = 0; i < 8; i++) {
+			configService.applyChange("rate:client:" + i, STORED, i);
+		}
+		configService.applyChange("rate:client:missing-1", null, 8);
+		configService.applyChange("rate:client:missing-2", null, 9);
+
+		configService.applyChange("rate:client:new", STORED, 10);
+		assertEquals(9, cacheSize());
+		for (int i = 0; i < 8; i++) {
+			assertEquals(STORED, configService.findCachedConfigs(List.of("rate:client:" + i)).get("rate:client:" + i));
+		}
+	}
+
+	@Test
+	void fullCacheOfConfigsShrinksBelowTheBound() {
+		for (int i = 0; i < 10; i++) {
+			configService.applyChange("rate:client:" + i, STORED, i);
+		}
+
+		configService.applyChange("rate:client:new", STORED, 10);
+		// Evicted down to 10% below the bound, then the new entry is added
+		assertEquals(9, cacheSize());
+		assertEquals(STORED, configService.findCachedConfigs(List.of("rate:client:new")).get("rate:client:new"));
+	}
+
+	private RateLimitConfigService configService(long negativeCacheMs, long positiveCacheMs) {
+		RateLimitConfigService service = new RateLimitConfigService();
+		ReflectionTestUtils.setField(service, "redisTemplate", redisTemplate);
+		ReflectionTestUtils.setField(service, "cacheMaxEntries", 10);
+		ReflectionTestUtils.setField(service, "negativeCacheMs", negativeCacheMs);
+		ReflectionTestUtils.setField(service, "positiveCacheMs", positiveCacheMs);
+		return service;
+	}
+
+	private void stubLoads(Map<Object, Object> first, Map<Object, Object> second) {
+		when(redisTemplate.executePipelined(any(RedisCallback.class)))
+				.thenReturn(List.of(first))
+				.thenReturn(List.of(second));
+	}
+
+	private int cacheSize() {
+		return ((Map<?, ?>) ReflectionTestUtils.getField(configService, "configCache")).size();
+	}
+
+	private static Map<Object, Object> fields(RateLimitConfig config) {
+		return Map.of(
+				"maxTokens", String.valueOf(config.getMaxTokens()),
+				"refillRate", String.valueOf(config.getRefillRate()),
+				"refillIntervalMs", String.valueOf(config.getRefillIntervalMs()),
+				"graceLimit", String.valueOf(config.getGraceLimit()),
+				"cost", String.valueOf(config.getCost()),
+				"costPerKb", String.valueOf(config.getCostPerKb())
+		);
+	}
+}
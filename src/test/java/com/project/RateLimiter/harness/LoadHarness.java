@@ -0,0 +1,268 @@
+package com.project.RateLimiter.harness;
+
+import com.project.RateLimiter.RateLimiterApplication;
+import com.project.RateLimiter.config.RateLimitConfigAdminService;
+import com.project.RateLimiter.dto.RateLimitConfig;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load-generation and accuracy harness. Starts one or more in-process application nodes sharing a
+ * spawned (or external) Redis, drives an endpoint at the given concurrency and key cardinality, and
+ * reports throughput, latency percentiles and admitted vs theoretical requests per key.
+ * Every request goes through the interceptor, so only interceptor admission is measured: the {@code @RateLimit}
+ * aspect skips requests the interceptor admitted, and its own limiting never runs under the harness.
+ * <p>
+ * Run from the project root (the Lua scripts are loaded from src/main/resources):
+ * <pre>
+ * ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.project.RateLimiter.harness.LoadHarness \
+ *   -Dexec.args="--nodes=2 --concurrency=64 --keys=100 --duration-seconds=10 --path=/test"
+ * </pre>
+ * Options (defaults in brackets): nodes [2], concurrency [32], keys [100], duration-seconds [10],
+ * path [/test; on /aop/* paths the declared cost and strategy apply, but the aspect adds only its skip check;
+ * the theoretical limit assumes a cost of 1, so weighted paths such as /aop/export read low], strategy [token_bucket], redis [spawn, or host:port],
+ * failover-after-seconds [0 = never; stops the spawned Redis mid-run], max-tokens [20], refill-rate [10],
+ * refill-interval-ms [1000], grace [0].
+ */
+public class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int nodeCount = intOption(options, "nodes", 2);
+        int concurrency = intOption(options, "concurrency", 32);
+        int keyCount = intOption(options, "keys", 100);
+        long durationMs = TimeUnit.SECONDS.toMillis(intOption(options, "duration-seconds", 10));
+        long failoverAfterMs = TimeUnit.SECONDS.toMillis(intOption(options, "failover-after-seconds", 0));
+        String path = options.getOrDefault("path", "/test");
+        String strategy = options.getOrDefault("strategy", "token_bucket");
+        RateLimitConfig config = new RateLimitConfig(
+                intOption(options, "max-tokens", 20),
+                intOption(options, "refill-rate", 10),
+                intOption(options, "refill-interval-ms", 1000),
+                intOption(options, "grace", 0));
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        String redisOption = options.getOrDefault("redis", "spawn");
+        try (LocalRedis redis = "spawn".equals(redisOption) ? LocalRedis.spawn() : LocalRedis.external(redisOption)) {
+            List<ConfigurableApplicationContext> nodes = startNodes(nodeCount, redis, strategy);
+            try {
+                seedConfigs(nodes.get(0), path, keyCount, config);
+                List<URI> targets = new ArrayList<>();
+                for (ConfigurableApplicationContext node : nodes) {
+                    int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+                    targets.add(URI.create("http://localhost:" + port + path));
+                }
+                if (failoverAfterMs > 0 && !redis.canStop()) {
+                    System.out.println("Failover needs a spawned Redis; ignoring failover-after-seconds");
+                    failoverAfterMs = 0;
+                }
+
+                LoadResult result = drive(targets, concurrency, keyCount, durationMs, failoverAfterMs, redis);
+                report(result, strategy, config, nodeCount);
+            } finally {
+                nodes.forEach(ConfigurableApplicationContext::close);
+            }
+        }
+    }
+
+    private static List<ConfigurableApplicationContext> startNodes(int nodeCount, LocalRedis redis, String strategy) {
+        List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            // Command-line arguments take precedence over application.properties
+            nodes.add(new SpringApplicationBuilder(RateLimiterApplication.class).run(
+                    "--server.port=0",
+                    "--spring.redis.host=" + redis.getHost(),
+                    "--spring.redis.port=" + redis.getPort(),
+                    "--ratelimit.strategy=" + strategy,
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.project=OFF"
+            ));
+        }
+        return nodes;
+    }
+
+    private static void seedConfigs(ConfigurableApplicationContext node, String path, int keyCount, RateLimitConfig config) {
+        Map<String, RateLimitConfig> configs = new HashMap<>();
+        for (int i = 0; i < keyCount; i++) {
+            configs.put(String.format("rate:client:%s:%s", clientId(i), path), config);
+        }
+        node.getBean(RateLimitConfigAdminService.class).importConfigs(configs);
+    }
+
+    private static LoadResult drive(List<URI> targets, int concurrency, int keyCount, long durationMs,
+                                    long failoverAfterMs, LocalRedis redis) throws InterruptedException {
+        // Non-daemon pools: both must be shut down, or the JVM never exits under exec:java
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(concurrency);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(clientExecutor)
+                    .build();
+            LoadResult result = new LoadResult(keyCount);
+            AtomicBoolean failedOver = new AtomicBoolean();
+
+            long start = System.currentTimeMillis();
+            long deadline = start + durationMs;
+            for (int w = 0; w < concurrency; w++) {
+                workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.currentTimeMillis() < deadline) {
+                        int key = random.nextInt(keyCount);
+                        HttpRequest request = HttpRequest.newBuilder(targets.get(random.nextInt(targets.size())))
+                                .header("X-Client-Id", clientId(key))
+                                .timeout(Duration.ofSeconds(5))
+                                .GET()
+                                .build();
+                        long sentNanos = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            result.latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentNanos));
+                            if (status == 200) {
+                                result.admitted[key].increment();
+                                if (failedOver.get()) {
+                                    result.admittedAfterFailover.increment();
+                                }
+                            } else if (status == 429) {
+                                result.throttled.increment();
+                            } else {
+                                result.errors.increment();
+                            }
+                        } catch (Exception e) {
+                            result.errors.increment();
+                        }
+                    }
+                });
+            }
+
+            if (failoverAfterMs > 0) {
+                Thread.sleep(Math.min(failoverAfterMs, durationMs));
+                redis.stop();
+                failedOver.set(true);
+                System.out.printf("Redis stopped after %d ms%n", System.currentTimeMillis() - start);
+            }
+            workers.shutdown();
+            workers.awaitTermination(durationMs + TimeUnit.SECONDS.toMillis(30), TimeUnit.MILLISECONDS);
+            result.elapsedMs = System.currentTimeMillis() - start;
+            return result;
+        } finally {
+            workers.shutdownNow();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static void report(LoadResult result, String strategy, RateLimitConfig config, int nodeCount) {
+        Histogram latency = result.latencyMicros;
+        long total = latency.getTotalCount();
+        System.out.println("=== Throughput ===");
+        System.out.printf("requests=%d elapsed=%d ms throughput=%.0f req/s throttled=%d errors=%d%n",
+                total, result.elapsedMs, total * 1000.0 / result.elapsedMs, result.throttled.sum(), result.errors.sum());
+
+        System.out.println("=== Latency (ms) ===");
+        System.out.printf("p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                latency.getValueAtPercentile(50) / 1000.0,
+                latency.getValueAtPercentile(90) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0,
+                latency.getMaxValue() / 1000.0);
+
+        System.out.println("=== Admission accuracy ===");
+        long theoretical = theoreticalLimit(strategy, config, result.elapsedMs);
+        if (theoretical < 0) {
+            System.out.println("No rate-based theoretical limit for strategy " + strategy);
+            return;
+        }
+        long admittedTotal = 0;
+        long keysOverLimit = 0;
+        double maxRatio = 0;
+        for (LongAdder adder : result.admitted) {
+            long admitted = adder.sum();
+            admittedTotal += admitted;
+            double ratio = admitted / (double) theoretical;
+            maxRatio = Math.max(maxRatio, ratio);
+            if (admitted > theoretical) {
+                keysOverLimit++;
+            }
+        }
+        int keyCount = result.admitted.length;
+        System.out.printf("nodes=%d keys=%d theoretical/key=%d admitted/key(mean)=%.1f max admitted/theoretical=%.3f keys over limit=%d%n",
+                nodeCount, keyCount, theoretical, admittedTotal / (double) keyCount, maxRatio, keysOverLimit);
+        System.out.printf("admitted total=%d theoretical total=%d admitted after failover=%d%n",
+                admittedTotal, theoretical * keyCount, result.admittedAfterFailover.sum());
+    }
+
+    /**
+     * Most requests a single key may be admitted over the run, or -1 if the strategy does not limit rate.
+     */
+    private static long theoreticalLimit(String strategy, RateLimitConfig config, long elapsedMs) {
+        long budget = config.getMaxTokens() + config.getGraceLimit();
+        long intervals = (elapsedMs + config.getRefillIntervalMs() - 1) / config.getRefillIntervalMs();
+        switch (strategy) {
+            case "token_bucket":
+            case "hierarchical_token_bucket":
+                return budget + intervals * config.getRefillRate();
+            case "approximate":
+                // A fixed window of refillIntervalMs with the whole budget per window
+                return budget * (intervals + 1);
+            default:
+                return -1;
+        }
+    }
+
+    private static String clientId(int key) {
+        return "load-" + key;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int separator = arg.indexOf('=');
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static final class LoadResult {
+        private final Histogram latencyMicros = new ConcurrentHistogram(3);
+        private final LongAdder[] admitted;
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder admittedAfterFailover = new LongAdder();
+        private long elapsedMs;
+
+        private LoadResult(int keyCount) {
+            admitted = new LongAdder[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                admitted[i] = new LongAdder();
+            }
+        }
+    }
+}
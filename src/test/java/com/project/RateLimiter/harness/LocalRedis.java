@@ -0,0 +1,91 @@
+package com.project.RateLimiter.harness;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis instance used by the load harness: either a redis-server process spawned on a free port
+ * (which can be stopped mid-run to simulate a failover) or an existing external instance.
+ */
+final class LocalRedis implements AutoCloseable {
+
+    private final String host;
+    private final int port;
+    private final Process process;
+
+    private LocalRedis(String host, int port, Process process) {
+        this.host = host;
+        this.port = port;
+        this.process = process;
+    }
+
+    static LocalRedis spawn() throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Process process = new ProcessBuilder("redis-server", "--port", String.valueOf(port), "--save", "", "--appendonly", "no")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        LocalRedis redis = new LocalRedis("localhost", port, process);
+        redis.awaitPong(TimeUnit.SECONDS.toMillis(10));
+        return redis;
+    }
+
+    static LocalRedis external(String hostAndPort) {
+        String[] parts = hostAndPort.split(":");
+        return new LocalRedis(parts[0], parts.length > 1 ? Integer.parseInt(parts[1]) : 6379, null);
+    }
+
+    String getHost() {
+        return host;
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    boolean canStop() {
+        return process != null;
+    }
+
+    void stop() throws InterruptedException {
+        if (process != null && process.isAlive()) {
+            process.destroy();
+            process.waitFor(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        stop();
+    }
+
+    private void awaitPong(long timeoutMs) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            try (Socket socket = new Socket(host, port)) {
+                OutputStream out = socket.getOutputStream();
+                out.write("PING\r\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                InputStream in = socket.getInputStream();
+                byte[] reply = new byte[5];
+                if (in.readNBytes(reply, 0, reply.length) == reply.length
+                        && "+PONG".equals(new String(reply, StandardCharsets.US_ASCII))) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not accepting connections yet
+            }
+            Thread.sleep(50);
+        }
+        stop();
+        throw new IOException("redis-server did not start on port " + port);
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.RateLimiter.interceptor;
+
+import com.project.RateLimiter.config.RateLimitConfigService;
+import com.project.RateLimiter.dto.RateLimitConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Runs requests through the interceptor and the {@code @RateLimit} aspect together.
+ * Redis points at a closed port, so the token bucket strategy uses its in-memory fallback,
+ * whose capacity is maxTokens + graceLimit.
+ */
+@SpringBootTest(properties = "spring.redis.port=1")
+@AutoConfigureMockMvc
+class RateLimitInterceptorTests {
+
+	private static final RateLimitConfig CONFIG = new RateLimitConfig(5, 1, 60000, 2);
+
+	// Client whose routes are configured with cost = 3
+	private static final String COSTLY_CLIENT = "configured-cost";
+	private static final RateLimitConfig COSTLY_CONFIG = new RateLimitConfig(5, 1, 60000, 2, 3, 0);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private RateLimitConfigService configService;
+
+	@BeforeEach
+	void stubConfig() {
+		when(configService.getConfig(any())).thenAnswer(invocation -> {
+			HttpServletRequest request = invocation.getArgument(0);
+			return COSTLY_CLIENT.equals(request.getHeader("X-Client-Id")) ? COSTLY_CONFIG : CONFIG;
+		});
+	}
+
+	@Test
+	void annotatedEndpointIsChargedOnce() throws Exception {
+		assertEquals(CONFIG.getMaxTokens() + CONFIG.getGraceLimit(), countAdmitted("/aop/test", "single-charge", 10));
+	}
+
+	@Test
+	void weightedEndpointAdmitsWholeRequestsOfCapacity() throws Exception {
+		// /aop/export declares cost = 5
+		assertEquals((CONFIG.getMaxTokens() + CONFIG.getGraceLimit()) / 5, countAdmitted("/aop/export", "weighted", 5));
+	}
+
+	@Test
+	void configuredCostAppliesWhenAnnotationLeavesItUnset() throws Exception {
+		// /aop/test does not declare a cost, so the route's configured cost of 3 is charged
+		assertEquals((COSTLY_CONFIG.getMaxTokens() + COSTLY_CONFIG.getGraceLimit()) / 3, countAdmitted("/aop/test", COSTLY_CLIENT, 5));
+	}
+
+	@Test
+	void pathVariablesShareTheRouteKey() throws Exception {
+		// Every id maps to /items/{id}, so all ten requests draw from one bucket
+		assertEquals(CONFIG.getMaxTokens() + CONFIG.getGraceLimit(), countAdmitted("/items/{id}", "path-variables", 10));
+	}
+
+	private int countAdmitted(String path, String clientId, int attempts) throws Exception {
+		int admitted = 0;
+		for (int i = 0; i < attempts; i++) {
+			int status = mockMvc.perform(get(path, i).header("X-Client-Id", clientId))
+					.andReturn().getResponse().getStatus();
+			if (status == 200) {
+				admitted++;
+			}
+		}
+		return admitted;
+	}
+
+	@TestConfiguration
+	static class PathVariableRoutes {
+
+		@Bean
+		ItemController itemController() {
+			return new ItemController();
+		}
+	}
+
+	@RestController
+	static class ItemController {
+
+		@GetMapping("/items/{id}")
+		String item(@PathVariable("id") String id) {
+			return id;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.project.RateLimiter.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdaptiveConcurrencyLimitTests {
+
+	private static final long THRESHOLD_MS = 100;
+	private static final long SLOW_MS = 500;
+	private static final long FAST_MS = 10;
+
+	@Test
+	void burstOfSlowSamplesBacksOffOncePerWindow() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 50, THRESHOLD_MS, 0.5);
+
+		// All 20 requests were in flight when the first one came back slow
+		for (int i = 0; i < 20; i++) {
+			limit.onSample(SLOW_MS);
+		}
+		assertEquals(25, limit.getLimit());
+
+		// Once a full window (the new limit of 25) has passed since the decrease, it may back off again
+		for (int i = 0; i < 5; i++) {
+			limit.onSample(SLOW_MS);
+		}
+		assertEquals(25, limit.getLimit());
+		limit.onSample(SLOW_MS);
+		assertEquals(12, limit.getLimit());
+	}
+
+	@Test
+	void windowOfFastSamplesGrowsByOne() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 50, THRESHOLD_MS, 0.5);
+
+		for (int i = 0; i < 9; i++) {
+			limit.onSample(FAST_MS);
+		}
+		assertEquals(10, limit.getLimit());
+		limit.onSample(FAST_MS);
+		assertEquals(11, limit.getLimit());
+	}
+
+	@Test
+	void neverBacksOffBelowMinimum() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 3, 50, THRESHOLD_MS, 0.1);
+
+		for (int i = 0; i < 100; i++) {
+			limit.onSample(SLOW_MS);
+		}
+		assertEquals(3, limit.getLimit());
+	}
+}
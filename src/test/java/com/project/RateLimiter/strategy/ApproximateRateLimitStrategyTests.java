@@ -0,0 +1,131 @@
+package com.project.RateLimiter.strategy;
+
+import com.project.RateLimiter.dto.RateLimitConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives {@code sync()} against a stubbed Redis pipeline.
+ */
+class ApproximateRateLimitStrategyTests {
+
+	// Budget of 100 per 1 s window
+	private static final RateLimitConfig CONFIG = new RateLimitConfig(90, 1, 1000, 10);
+	private static final double OVERSHOOT = 0.05;
+	private static final long NOW = 10_000;
+
+	@Test
+	void syncPushesDeltasAndSplitsQuotaAcrossNodes() {
+		StubbedStrategy strategy = new StubbedStrategy();
+		ApproximateWindowCounter counter = addCounter(strategy, "rate:client:/test", NOW);
+		admit(counter, 4);
+		strategy.totals = new long[]{45, 3};
+
+		strategy.sync(NOW);
+
+		assertEquals(List.of("rate:client:/test:approx:10"), strategy.pushedKeys);
+		assertEquals(List.of(4L), strategy.pushedDeltas);
+		assertEquals(20, counter.getLocalQuota());
+	}
+
+	@Test
+	void failedPushRestoresDeltasForTheNextSync() {
+		StubbedStrategy strategy = new StubbedStrategy();
+		ApproximateWindowCounter counter = addCounter(strategy, "rate:client:/test", NOW);
+		admit(counter, 3);
+
+		strategy.failure = new IllegalStateException("redis down");
+		strategy.sync(NOW);
+		assertEquals(5, counter.getLocalQuota());
+		admit(counter, 1);
+
+		strategy.failure = null;
+		strategy.sync(NOW);
+		assertEquals(List.of(4L), strategy.pushedDeltas);
+	}
+
+	@Test
+	void failedPushDropsDeltasOfARolledWindow() {
+		StubbedStrategy strategy = new StubbedStrategy();
+		ApproximateWindowCounter counter = addCounter(strategy, "rate:client:/test", NOW);
+		admit(counter, 3);
+
+		// The window rolls over while the push is in flight
+		strategy.duringPush = () -> counter.rollWindow(NOW + 1000, CONFIG);
+		strategy.failure = new IllegalStateException("redis down");
+		strategy.sync(NOW);
+
+		strategy.duringPush = null;
+		strategy.failure = null;
+		strategy.sync(NOW + 1000);
+		assertEquals(List.of("rate:client:/test:approx:11"), strategy.pushedKeys);
+		assertEquals(List.of(0L), strategy.pushedDeltas);
+	}
+
+	@Test
+	void idleCountersAreEvictedWithoutCallingRedis() {
+		StubbedStrategy strategy = new StubbedStrategy();
+		addCounter(strategy, "rate:idle:/test", NOW);
+		addCounter(strategy, "rate:busy:/test", NOW + 1000);
+
+		strategy.sync(NOW + 2000);
+		assertFalse(strategy.counters().containsKey("rate:idle:/test"));
+		assertTrue(strategy.counters().containsKey("rate:busy:/test"));
+		assertEquals(List.of("rate:busy:/test:approx:11"), strategy.pushedKeys);
+
+		strategy.pushes = 0;
+		strategy.sync(NOW + 3000);
+		assertTrue(strategy.counters().isEmpty());
+		assertEquals(0, strategy.pushes);
+	}
+
+	private static ApproximateWindowCounter addCounter(StubbedStrategy strategy, String key, long now) {
+		ApproximateWindowCounter counter = new ApproximateWindowCounter(CONFIG, OVERSHOOT, now);
+		strategy.counters().put(key, counter);
+		return counter;
+	}
+
+	private static void admit(ApproximateWindowCounter counter, int requests) {
+		for (int i = 0; i < requests; i++) {
+			assertTrue(counter.tryAcquire(1));
+		}
+	}
+
+	private static final class StubbedStrategy extends ApproximateRateLimitStrategy {
+
+		long[] totals = {0, 1};
+		RuntimeException failure;
+		Runnable duringPush;
+		int pushes;
+		List<String> pushedKeys = new ArrayList<>();
+		List<Long> pushedDeltas = new ArrayList<>();
+
+		StubbedStrategy() {
+			super(null, null);
+		}
+
+		@Override
+		List<long[]> push(List<String> windowKeys, List<Long> deltas, List<Long> ttls) {
+			pushes++;
+			pushedKeys = new ArrayList<>(windowKeys);
+			pushedDeltas = new ArrayList<>(deltas);
+			if (duringPush != null) {
+				duringPush.run();
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			List<long[]> result = new ArrayList<>();
+			for (int i = 0; i < windowKeys.size(); i++) {
+				result.add(totals);
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.project.RateLimiter.strategy;
+
+import com.project.RateLimiter.dto.RateLimitConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApproximateWindowCounterTests {
+
+	// Budget of 100 per 1 s window
+	private static final RateLimitConfig CONFIG = new RateLimitConfig(90, 1, 1000, 10);
+	private static final double OVERSHOOT = 0.05;
+	private static final long NOW = 10_000;
+
+	@Test
+	void unsyncedCounterAdmitsOnlyTheToleratedOvershoot() {
+		ApproximateWindowCounter counter = new ApproximateWindowCounter(CONFIG, OVERSHOOT, NOW);
+		assertEquals(5, admit(counter, 1, 20));
+
+		// A tiny budget still admits one request
+		ApproximateWindowCounter tiny = new ApproximateWindowCounter(new RateLimitConfig(5, 1, 1000, 0), OVERSHOOT, NOW);
+		assertEquals(1, admit(tiny, 1, 5));
+	}
+
+	@Test
+	void globalCountSplitsRemainingAllowanceAcrossNodes() {
+		ApproximateWindowCounter counter = new ApproximateWindowCounter(CONFIG, OVERSHOOT, NOW);
+		admit(counter, 1, 5);
+
+		// Allowance is 105; 45 are spent fleet-wide and 3 nodes share the rest
+		counter.applyGlobalCount(counter.getWindowId(), 45, 3);
+		assertEquals(20, counter.getLocalQuota());
+		assertEquals(20, admit(counter, 1, 30));
+
+		// Weighted requests only fit while whole
+		counter.applyGlobalCount(counter.getWindowId(), 100, 1);
+		assertEquals(1, admit(counter, 3, 5));
+	}
+
+	@Test
+	void exhaustedAllowanceAdmitsNothing() {
+		ApproximateWindowCounter counter = new ApproximateWindowCounter(CONFIG, OVERSHOOT, NOW);
+		counter.applyGlobalCount(counter.getWindowId(), 200, 2);
+		assertEquals(0, counter.getLocalQuota());
+		assertFalse(counter.tryAcquire(1));
+	}
+
+	@Test
+	void globalCountOfPreviousWindowIsIgnored() {
+		ApproximateWindowCounter counter = new ApproximateWindowCounter(CONFIG, OVERSHOOT, NOW);
+		long previous = counter.getWindowId();
+		counter.rollWindow(NOW + 1000, CONFIG);
+
+		counter.applyGlobalCount(previous, 0, 1);
+		assertEquals(5, counter.getLocalQuota());
+	}
+
+	@Test
+	void rollWindowResetsCountsAndAppliesLatestConfig() {
+		ApproximateWindowCounter counter = new ApproximateWindowCounter(CONFIG, OVERSHOOT, NOW);
+		counter.applyGlobalCount(counter.getWindowId(), 0, 3);
+		admit(counter, 1, 10);
+		assertEquals(10, counter.drainPending());
+		admit(counter, 1, 2);
+
+		// Budget of 30: allowance 31 split across the 3 nodes of the last sync
+		RateLimitConfig smaller = new RateLimitConfig(30, 1, 1000, 0);
+		counter.rollWindow(NOW + 1000, smaller);
+		assertTrue(counter.isCurrent(NOW + 1000));
+		assertEquals(smaller, counter.getConfig());
+		assertEquals(10, counter.getLocalQuota());
+		assertEquals(0, counter.drainPending());
+		assertEquals(10, admit(counter, 1, 20));
+
+		// A second roll to the same window is a no-op
+		counter.rollWindow(NOW + 1500, CONFIG);
+		assertEquals(smaller, counter.getConfig());
+	}
+
+	@Test
+	void restoredDeltasOnlyCountTowardsTheirWindow() {
+		ApproximateWindowCounter counter = new ApproximateWindowCounter(CONFIG, OVERSHOOT, NOW);
+		admit(counter, 1, 3);
+		long window = counter.getWindowId();
+		long delta = counter.drainPending();
+
+		counter.restorePending(window, delta);
+		assertEquals(3, counter.drainPending());
+
+		counter.rollWindow(NOW + 1000, CONFIG);
+		counter.restorePending(window, delta);
+		assertEquals(0, counter.drainPending());
+	}
+
+	@Test
+	void counterIsIdleOnceAWholeWindowPassedUnused() {
+		ApproximateWindowCounter counter = new ApproximateWindowCounter(CONFIG, OVERSHOOT, NOW);
+		assertFalse(counter.isIdle(NOW + 1000));
+		assertTrue(counter.isIdle(NOW + 2000));
+	}
+
+	private static int admit(ApproximateWindowCounter counter, long cost, int attempts) {
+		int admitted = 0;
+		for (int i = 0; i < attempts; i++) {
+			if (counter.tryAcquire(cost)) {
+				admitted++;
+			}
+		}
+		return admitted;
+	}
+}
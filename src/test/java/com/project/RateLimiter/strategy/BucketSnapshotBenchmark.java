@@ -0,0 +1,43 @@
+package com.project.RateLimiter.strategy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures snapshot throughput and restore (startup) time of {@link BucketSnapshotFile}.
+ * Run with: {@code java ... BucketSnapshotBenchmark [keys, default 2000000]}
+ */
+public class BucketSnapshotBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path path = Files.createTempFile("bucket-snapshot-benchmark", ".snapshot");
+
+        ConcurrentHashMap<String, InMemoryTokenBucket> buckets = new ConcurrentHashMap<>();
+        for (int i = 0; i < keys; i++) {
+            InMemoryTokenBucket bucket = new InMemoryTokenBucket(100, 10, 1, 60_000);
+            bucket.isAllowed(1 + i % 50);
+            buckets.put("rate:client:client-" + i + ":/api/resource", bucket);
+        }
+
+        BucketSnapshotFile snapshotFile = new BucketSnapshotFile();
+        long start = System.nanoTime();
+        long written = snapshotFile.write(path, List.of(buckets));
+        long writeNanos = System.nanoTime() - start;
+
+        ConcurrentHashMap<String, InMemoryTokenBucket> restoredBuckets = new ConcurrentHashMap<>(keys * 2);
+        start = System.nanoTime();
+        long restored = snapshotFile.read(path, List.of(restoredBuckets), System.currentTimeMillis());
+        long readNanos = System.nanoTime() - start;
+
+        System.out.printf("keys=%d file=%d MB%n", keys, Files.size(path) / (1024 * 1024));
+        System.out.printf("snapshot: %d buckets in %d ms (%.0f buckets/s)%n",
+                written, TimeUnit.NANOSECONDS.toMillis(writeNanos), written / (writeNanos / 1e9));
+        System.out.printf("restore:  %d buckets in %d ms (%.0f buckets/s)%n",
+                restored, TimeUnit.NANOSECONDS.toMillis(readNanos), restored / (readNanos / 1e9));
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,114 @@
+package com.project.RateLimiter.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BucketSnapshotFileTests {
+
+	// Long enough that no refill happens while a test runs
+	private static final long NO_REFILL_MS = 3_600_000;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void restoresBucketStateIntoItsSource() throws IOException {
+		ConcurrentHashMap<String, InMemoryTokenBucket> first = new ConcurrentHashMap<>();
+		ConcurrentHashMap<String, InMemoryTokenBucket> second = new ConcurrentHashMap<>();
+		first.put("rate:client:a:/test", drained(10, 2, 7));
+		second.put("rate:client:b:/test", drained(4, 0, 4));
+		Path path = dir.resolve("buckets.snapshot");
+		BucketSnapshotFile snapshotFile = new BucketSnapshotFile();
+
+		assertEquals(2, snapshotFile.write(path, List.of(first, second)));
+
+		ConcurrentHashMap<String, InMemoryTokenBucket> restoredFirst = new ConcurrentHashMap<>();
+		ConcurrentHashMap<String, InMemoryTokenBucket> restoredSecond = new ConcurrentHashMap<>();
+		assertEquals(2, snapshotFile.read(path, List.of(restoredFirst, restoredSecond), System.currentTimeMillis()));
+
+		// 3 tokens and 2 grace tokens were left
+		InMemoryTokenBucket a = restoredFirst.get("rate:client:a:/test");
+		assertTrue(a.isAllowed(5));
+		assertFalse(a.isAllowed(1));
+		assertFalse(restoredSecond.get("rate:client:b:/test").isAllowed(1));
+		assertNull(restoredSecond.get("rate:client:a:/test"));
+	}
+
+	@Test
+	void skipsFullBuckets() throws IOException {
+		ConcurrentHashMap<String, InMemoryTokenBucket> buckets = new ConcurrentHashMap<>();
+		buckets.put("full", new InMemoryTokenBucket(10, 2, 1, NO_REFILL_MS));
+		buckets.put("used", drained(10, 2, 1));
+		Path path = dir.resolve("buckets.snapshot");
+		BucketSnapshotFile snapshotFile = new BucketSnapshotFile();
+
+		assertEquals(1, snapshotFile.write(path, List.of(buckets)));
+
+		ConcurrentHashMap<String, InMemoryTokenBucket> restored = new ConcurrentHashMap<>();
+		assertEquals(1, snapshotFile.read(path, List.of(restored), System.currentTimeMillis()));
+		assertNull(restored.get("full"));
+		assertTrue(restored.containsKey("used"));
+	}
+
+	@Test
+	void recordsSurviveChunkBoundaries() throws IOException {
+		ConcurrentHashMap<String, InMemoryTokenBucket> buckets = new ConcurrentHashMap<>();
+		int keys = 20_000;
+		for (int i = 0; i < keys; i++) {
+			buckets.put("rate:client:client-" + i + ":/api/resource", drained(100, 10, 1 + i % 50));
+		}
+		// A maximum-length key forces a chunk switch wherever it lands
+		String longKey = "k".repeat(0xFFFF);
+		buckets.put(longKey, drained(100, 10, 3));
+		Path path = dir.resolve("buckets.snapshot");
+		// The smallest allowed chunk, so the file spans many chunks on both write and read
+		BucketSnapshotFile snapshotFile = new BucketSnapshotFile(2 * BucketSnapshotFile.MAX_RECORD_BYTES);
+
+		assertEquals(keys + 1, snapshotFile.write(path, List.of(buckets)));
+		assertTrue(Files.size(path) > 4L * BucketSnapshotFile.MAX_RECORD_BYTES);
+
+		ConcurrentHashMap<String, InMemoryTokenBucket> restored = new ConcurrentHashMap<>();
+		assertEquals(keys + 1, snapshotFile.read(path, List.of(restored), System.currentTimeMillis()));
+		for (int i = 0; i < keys; i++) {
+			InMemoryTokenBucket bucket = restored.get("rate:client:client-" + i + ":/api/resource");
+			long left = 110 - (1 + i % 50);
+			assertTrue(bucket.isAllowed(left), "bucket " + i);
+			assertFalse(bucket.isAllowed(1), "bucket " + i);
+		}
+		assertTrue(restored.get(longKey).isAllowed(107));
+	}
+
+	@Test
+	void rejectsBadMagic() throws IOException {
+		Path path = dir.resolve("buckets.snapshot");
+		Files.write(path, new byte[64]);
+
+		assertThrows(IOException.class, () ->
+				new BucketSnapshotFile().read(path, List.of(new ConcurrentHashMap<>()), System.currentTimeMillis()));
+	}
+
+	@Test
+	void missingSnapshotRestoresNothing() throws IOException {
+		ConcurrentHashMap<String, InMemoryTokenBucket> restored = new ConcurrentHashMap<>();
+		assertEquals(0, new BucketSnapshotFile().read(dir.resolve("absent.snapshot"), List.of(restored), System.currentTimeMillis()));
+		assertTrue(restored.isEmpty());
+	}
+
+	private static InMemoryTokenBucket drained(long max, long grace, long cost) {
+		InMemoryTokenBucket bucket = new InMemoryTokenBucket(max, grace, 1, NO_REFILL_MS);
+		assertTrue(bucket.isAllowed(cost));
+		return bucket;
+	}
+}
@@ -0,0 +1,35 @@
+package com.project.RateLimiter.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitStrategyTests {
+
+	@Test
+	void forwardedDispatchKeepsTheOriginalPermit() {
+		ConcurrencyLimitStrategy strategy = new ConcurrencyLimitStrategy(null);
+		ReflectionTestUtils.setField(strategy, "maxInFlight", 1);
+
+		MockHttpServletRequest request = request("forwarding");
+		assertTrue(strategy.isAllowedLocally(request));
+		ConcurrencyPermit permit = (ConcurrencyPermit) request.getAttribute(ConcurrencyPermit.ATTRIBUTE);
+		// The forwarded dispatch passes the interceptor again with the same request
+		assertTrue(strategy.isAllowedLocally(request));
+		assertSame(permit, request.getAttribute(ConcurrencyPermit.ATTRIBUTE));
+
+		assertFalse(strategy.isAllowedLocally(request("forwarding")));
+		permit.release();
+		assertTrue(strategy.isAllowedLocally(request("forwarding")));
+	}
+
+	private static MockHttpServletRequest request(String clientId) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+		request.addHeader("X-Client-Id", clientId);
+		return request;
+	}
+}
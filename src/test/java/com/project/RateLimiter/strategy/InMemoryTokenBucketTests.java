@@ -0,0 +1,78 @@
+package com.project.RateLimiter.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryTokenBucketTests {
+
+	// Long enough that no refill happens while a test runs
+	private static final long NO_REFILL_MS = 3_600_000;
+
+	@Test
+	void weightedCostAdmitsWholeRequestsOfCapacity() {
+		long max = 5;
+		long grace = 2;
+		for (long cost = 1; cost <= 8; cost++) {
+			InMemoryTokenBucket bucket = new InMemoryTokenBucket(max, grace, 1, NO_REFILL_MS);
+			int admitted = 0;
+			for (int i = 0; i < 10; i++) {
+				if (bucket.isAllowed(cost)) {
+					admitted++;
+				}
+			}
+			assertEquals((max + grace) / cost, admitted, "admitted at cost " + cost);
+		}
+	}
+
+	@Test
+	void rejectedInnerLevelLeavesOuterBucketsUntouched() {
+		InMemoryTokenBucket tenant = new InMemoryTokenBucket(10, 0, 1, NO_REFILL_MS);
+		InMemoryTokenBucket client = new InMemoryTokenBucket(10, 0, 1, NO_REFILL_MS);
+		InMemoryTokenBucket route = new InMemoryTokenBucket(1, 0, 1, NO_REFILL_MS);
+		List<InMemoryTokenBucket> levels = List.of(tenant, client, route);
+
+		assertTrue(InMemoryTokenBucket.isAllowedAll(levels));
+		for (int i = 0; i < 5; i++) {
+			assertFalse(InMemoryTokenBucket.isAllowedAll(levels));
+		}
+
+		// Only the admitted request was charged to the outer levels
+		assertTrue(tenant.isAllowed(9));
+		assertFalse(tenant.isAllowed(1));
+		assertTrue(client.isAllowed(9));
+		assertFalse(client.isAllowed(1));
+	}
+
+	@Test
+	void rejectedOuterLevelLeavesInnerBucketsUntouched() {
+		InMemoryTokenBucket tenant = new InMemoryTokenBucket(2, 0, 1, NO_REFILL_MS);
+		InMemoryTokenBucket route = new InMemoryTokenBucket(10, 0, 1, NO_REFILL_MS);
+		List<InMemoryTokenBucket> levels = List.of(tenant, route);
+
+		assertTrue(InMemoryTokenBucket.isAllowedAll(levels, 2));
+		assertFalse(InMemoryTokenBucket.isAllowedAll(levels, 2));
+
+		assertTrue(route.isAllowed(8));
+		assertFalse(route.isAllowed(1));
+	}
+
+	@Test
+	void costIsChargedToEveryLevelAndMayUseGrace() {
+		InMemoryTokenBucket tenant = new InMemoryTokenBucket(4, 2, 1, NO_REFILL_MS);
+		InMemoryTokenBucket route = new InMemoryTokenBucket(10, 0, 1, NO_REFILL_MS);
+		List<InMemoryTokenBucket> levels = List.of(tenant, route);
+
+		assertTrue(InMemoryTokenBucket.isAllowedAll(levels, 3));
+		// Tenant has 1 token and 2 grace tokens left
+		assertTrue(InMemoryTokenBucket.isAllowedAll(levels, 3));
+		assertFalse(InMemoryTokenBucket.isAllowedAll(levels, 1));
+
+		assertTrue(route.isAllowed(4));
+		assertFalse(route.isAllowed(1));
+	}
+}
@@ -0,0 +1,42 @@
+package com.project.RateLimiter.util;
+
+import com.project.RateLimiter.dto.RateLimitConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CostCalculatorTests {
+
+	// maxTokens 10, graceLimit 2, cost 1, costPerKb 2
+	private static final RateLimitConfig SIZED = new RateLimitConfig(10, 1, 60000, 2, 1, 2);
+
+	@Test
+	void chargesEveryStartedKb() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+		request.setContent(new byte[1025]);
+
+		assertEquals(1 + 2 * 2, CostCalculator.calculateCost(request, SIZED));
+	}
+
+	@Test
+	void chargesChunkedBodyOfUnknownLengthTheWholeBucket() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+		request.addHeader("Transfer-Encoding", "chunked");
+
+		assertEquals(10 + 2, CostCalculator.calculateCost(request, SIZED));
+	}
+
+	@Test
+	void requestWithoutBodyPaysBaseCost() {
+		assertEquals(1, CostCalculator.calculateCost(new MockHttpServletRequest("GET", "/upload"), SIZED));
+	}
+
+	@Test
+	void declaredCostOverridesConfiguredCost() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/export");
+		request.setAttribute(CostCalculator.COST_ATTRIBUTE, 5);
+
+		assertEquals(5, CostCalculator.calculateCost(request, new RateLimitConfig(10, 1, 60000, 2, 3, 0)));
+	}
+}